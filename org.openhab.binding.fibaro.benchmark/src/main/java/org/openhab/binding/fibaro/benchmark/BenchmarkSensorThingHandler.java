@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.benchmark;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.thing.binding.builder.ThingBuilder;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.fibaro.FibaroBindingConstants;
+import org.openhab.binding.fibaro.FibaroChannel;
+import org.openhab.binding.fibaro.handler.FibaroSensorThingHandler;
+import org.openhab.binding.fibaro.handler.FibaroGatewayBridgeHandler;
+
+/**
+ * {@link FibaroSensorThingHandler} attached to a bridge without the framework. Published states are counted instead
+ * of being posted to the event bus, everything before that runs as in the binding.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class BenchmarkSensorThingHandler extends FibaroSensorThingHandler {
+
+    private long published;
+    private State lastState;
+
+    /**
+     * Creates the handler and adds it to the bridge
+     *
+     * @param bridge Bridge the handler is attached to
+     * @param id Fibaro device id
+     * @param channels Channels that are linked
+     */
+    public BenchmarkSensorThingHandler(FibaroGatewayBridgeHandler bridge, int id, FibaroChannel... channels) {
+        super(ThingBuilder
+                .create(FibaroBindingConstants.THING_TYPE_SENSOR,
+                        new ThingUID(FibaroBindingConstants.THING_TYPE_SENSOR, bridge.getThing().getUID(), String.valueOf(id)))
+                .withBridge(bridge.getThing().getUID()).build());
+        this.id = id;
+        this.bridge = bridge;
+        linkedChannels = EnumSet.copyOf(Arrays.asList(channels));
+        stateFilter = bridge.createStateFilter((channel, state) -> updateState(channel.getId(), state));
+        bridge.addThing(id, this);
+    }
+
+    @Override
+    protected void updateState(String channelID, State state) {
+        published++;
+        lastState = state;
+    }
+
+    /**
+     * Number of states published since the handler was created
+     */
+    public long getPublished() {
+        return published;
+    }
+
+    public State getLastState() {
+        return lastState;
+    }
+
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.fibaro.internal.InMemoryCache;
+import org.openhab.binding.fibaro.internal.model.FibaroDeviceState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the device cache shared by all threads of a bridge under contention. Run with -t to set the number of
+ * threads, for example -t 1, -t 4 and -t 16. The cache is sized and expires like the one of the bridge.
+ * <p>
+ * With as many devices as the cache holds every put is a refresh, with twice as many every put of a device that is
+ * not cached evicts the entry that expires first.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+    private static final int CACHE_EXPIRY = 10; // 10s
+    private static final int CACHE_SIZE = 500;
+
+    // Share of the operations of the refresh heavy mix, in percent
+    private static final int MIX_GETS = 90;
+    private static final int MIX_PUTS = 9;
+
+    @Param({ "500", "1000" })
+    public int devices;
+
+    private InMemoryCache<Integer, FibaroDeviceState> cache;
+    private FibaroDeviceState[] states;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new InMemoryCache<Integer, FibaroDeviceState>(CACHE_EXPIRY, CACHE_SIZE);
+        states = new FibaroDeviceState[devices + 1];
+        for (int id = 1; id <= devices; id++) {
+            FibaroDeviceState device = new FibaroDeviceState();
+            device.setId(id);
+            device.setProperty("value", "0");
+            states[id] = device;
+        }
+    }
+
+    /**
+     * Entries expire after a few seconds, each iteration starts with a full cache
+     */
+    @Setup(Level.Iteration)
+    public void fillCache() {
+        for (int id = 1; id <= Math.min(devices, CACHE_SIZE); id++) {
+            cache.put(id, states[id]);
+        }
+    }
+
+    private int randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(devices);
+    }
+
+    @Benchmark
+    public FibaroDeviceState get() {
+        return cache.get(randomId());
+    }
+
+    @Benchmark
+    public void put() {
+        int id = randomId();
+        cache.put(id, states[id]);
+    }
+
+    /**
+     * A device is removed from the cache when it changed and is put back once it has been fetched again
+     */
+    @Benchmark
+    public void removeAndPut() {
+        int id = randomId();
+        cache.remove(id);
+        cache.put(id, states[id]);
+    }
+
+    /**
+     * The periodic cleanup, which finds no expired entries most of the time
+     */
+    @Benchmark
+    public void cleanup() {
+        cache.cleanup();
+    }
+
+    /**
+     * Refresh heavy mix: mostly reads by refresh commands and the update path, refreshes of fetched devices and
+     * invalidations of changed devices
+     */
+    @Benchmark
+    public FibaroDeviceState refreshMix() {
+        int id = randomId();
+        int operation = ThreadLocalRandom.current().nextInt(100);
+        if (operation < MIX_GETS) {
+            return cache.get(id);
+        }
+        if (operation < MIX_GETS + MIX_PUTS) {
+            cache.put(id, states[id]);
+        } else {
+            cache.remove(id);
+        }
+        return null;
+    }
+
+}
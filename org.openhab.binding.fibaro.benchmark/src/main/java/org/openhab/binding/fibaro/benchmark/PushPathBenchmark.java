@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.thing.binding.builder.BridgeBuilder;
+import org.openhab.binding.fibaro.FibaroBindingConstants;
+import org.openhab.binding.fibaro.FibaroChannel;
+import org.openhab.binding.fibaro.handler.FibaroGatewayBridgeHandler;
+import org.openhab.binding.fibaro.handler.FibaroServerHandler;
+import org.openhab.binding.fibaro.internal.FibaroMetrics;
+import org.openhab.binding.fibaro.internal.model.FibaroDeviceState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the push update path from the raw json of a request body to the published channel states: parsing in the
+ * {@link FibaroServerHandler}, routing in {@link FibaroGatewayBridgeHandler#handleFibaroUpdate}, the property and
+ * channel lookups, the state conversions and the state filter. Updates are handled on the calling thread instead of
+ * the bridge update threads, so only the work done per update is measured. Run with -prof gc to also get the
+ * allocation rate (gc.alloc.rate.norm is the number of bytes allocated per request).
+ * <p>
+ * Scenarios:
+ * <ul>
+ * <li>switch: a single switch turned on and off, one update per request</li>
+ * <li>multisensor: a sensor with nine linked channels, five updates per request</li>
+ * <li>mix: 500 switches, dimmers and multisensors, one update per request for a random device</li>
+ * </ul>
+ *
+ * @author Johan Williams - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PushPathBenchmark {
+
+    private static final int PAYLOADS = 4096; // Power of two
+    private static final int MIX_DEVICES = 500;
+
+    private static final FibaroChannel[] SWITCH_CHANNELS = { FibaroChannel.SWITCH, FibaroChannel.POWER,
+            FibaroChannel.ENERGY };
+    private static final FibaroChannel[] DIMMER_CHANNELS = { FibaroChannel.DIMMER, FibaroChannel.POWER,
+            FibaroChannel.ENERGY };
+    private static final FibaroChannel[] MULTISENSOR_CHANNELS = { FibaroChannel.BATTERY, FibaroChannel.DEAD,
+            FibaroChannel.ENERGY, FibaroChannel.POWER, FibaroChannel.MOTION, FibaroChannel.TEMPERATURE,
+            FibaroChannel.ILLUMINANCE, FibaroChannel.HEAT, FibaroChannel.SMOKE };
+
+    @Param({ "switch", "multisensor", "mix" })
+    public String scenario;
+
+    private FibaroGatewayBridgeHandler bridge;
+    private FibaroServerHandler serverHandler;
+    private int deviceCount;
+    private String[] payloads;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bridge = new FibaroGatewayBridgeHandler(
+                BridgeBuilder.create(FibaroBindingConstants.THING_TYPE_BRIDGE_GATEWAY, "benchmark").build(), null);
+        serverHandler = new FibaroServerHandler(update -> {
+            bridge.handleFibaroUpdate(update);
+            return true;
+        }, new FibaroMetrics());
+
+        Random random = new Random(42);
+        payloads = new String[PAYLOADS];
+        switch (scenario) {
+            case "switch":
+                deviceCount = 1;
+                new BenchmarkActorThingHandler(bridge, 1, FibaroChannel.SWITCH);
+                for (int i = 0; i < PAYLOADS; i++) {
+                    payloads[i] = update(1, "value", String.valueOf(i % 2));
+                }
+                break;
+            case "multisensor":
+                deviceCount = 1;
+                new BenchmarkSensorThingHandler(bridge, 1, MULTISENSOR_CHANNELS);
+                for (int i = 0; i < PAYLOADS; i++) {
+                    List<String> batch = new ArrayList<String>();
+                    batch.add(update(1, "value", sensorValue(random)));
+                    batch.add(update(1, "power", decimal(random, 100)));
+                    batch.add(update(1, "energy", decimal(random, 1000)));
+                    batch.add(update(1, "batteryLevel", String.valueOf(random.nextInt(101))));
+                    batch.add(update(1, "dead", String.valueOf(i % 2)));
+                    payloads[i] = "[" + String.join(",", batch) + "]";
+                }
+                break;
+            case "mix":
+                deviceCount = MIX_DEVICES;
+                for (int id = 1; id <= MIX_DEVICES; id++) {
+                    switch (id % 10) {
+                        case 0:
+                        case 1:
+                        case 2:
+                        case 3:
+                        case 4:
+                            new BenchmarkActorThingHandler(bridge, id, SWITCH_CHANNELS);
+                            break;
+                        case 5:
+                        case 6:
+                            new BenchmarkActorThingHandler(bridge, id, DIMMER_CHANNELS);
+                            break;
+                        default:
+                            new BenchmarkSensorThingHandler(bridge, id, MULTISENSOR_CHANNELS);
+                            break;
+                    }
+                }
+                for (int i = 0; i < PAYLOADS; i++) {
+                    int id = 1 + random.nextInt(MIX_DEVICES);
+                    int kind = id % 10;
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            payloads[i] = update(id, "power", decimal(random, 100));
+                            break;
+                        case 1:
+                            payloads[i] = update(id, "energy", decimal(random, 1000));
+                            break;
+                        default:
+                            String value = kind < 5 ? String.valueOf(random.nextInt(2))
+                                    : kind < 7 ? String.valueOf(random.nextInt(101)) : sensorValue(random);
+                            payloads[i] = update(id, "value", value);
+                            break;
+                    }
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown scenario " + scenario);
+        }
+    }
+
+    /**
+     * Cached entries expire after a few seconds, each iteration starts with all devices cached as they are after a
+     * refresh
+     */
+    @Setup(Level.Iteration)
+    public void fillCache() {
+        for (int id = 1; id <= deviceCount; id++) {
+            FibaroDeviceState device = new FibaroDeviceState();
+            device.setId(id);
+            device.setProperty("value", "0");
+            device.setProperty("power", "0.0");
+            device.setProperty("energy", "0.0");
+            device.setProperty("batteryLevel", "100");
+            device.setProperty("dead", "false");
+            bridge.addToCache(id, device);
+        }
+    }
+
+    @Benchmark
+    public FibaroServerHandler.Dispatched push() throws IOException {
+        String payload = payloads[next];
+        next = (next + 1) & (PAYLOADS - 1);
+        return serverHandler.handleUpdates(new StringReader(payload));
+    }
+
+    private static String update(int id, String property, String value) {
+        return "{\"id\":" + id + ",\"name\":\"Device " + id + "\",\"property\":\"" + property + "\",\"value\":\""
+                + value + "\"}";
+    }
+
+    /**
+     * The value of a multisensor is the motion, heat or smoke state or a temperature or illuminance reading
+     */
+    private static String sensorValue(Random random) {
+        return random.nextBoolean() ? String.valueOf(random.nextInt(2)) : decimal(random, 40);
+    }
+
+    private static String decimal(Random random, int max) {
+        return String.format(Locale.ROOT, "%.2f", random.nextDouble() * max);
+    }
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.thing.binding.builder.BridgeBuilder;
+import org.openhab.binding.fibaro.FibaroBindingConstants;
+import org.openhab.binding.fibaro.FibaroChannel;
+import org.openhab.binding.fibaro.handler.FibaroAbstractThingHandler;
+import org.openhab.binding.fibaro.handler.FibaroGatewayBridgeHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the lookups of the things of a bridge by device id, which every update does, under contention. Run with -t
+ * to set the number of threads, for example -t 1, -t 4 and -t 16.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThingRegistryBenchmark {
+
+    // Share of the operations that re-add a thing, in percent of the mix
+    private static final int MIX_WRITES = 1;
+
+    @Param({ "500" })
+    public int things;
+
+    private FibaroGatewayBridgeHandler bridge;
+    private FibaroAbstractThingHandler[] handlers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bridge = new FibaroGatewayBridgeHandler(
+                BridgeBuilder.create(FibaroBindingConstants.THING_TYPE_BRIDGE_GATEWAY, "benchmark").build(), null);
+        handlers = new FibaroAbstractThingHandler[things + 1];
+        for (int id = 1; id <= things; id++) {
+            handlers[id] = new BenchmarkActorThingHandler(bridge, id, FibaroChannel.SWITCH);
+        }
+    }
+
+    private int randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(things);
+    }
+
+    @Benchmark
+    public FibaroAbstractThingHandler[] get() {
+        return bridge.getThings(randomId());
+    }
+
+    /**
+     * Lookups while things are removed and added again, as when a thing is edited
+     */
+    @Benchmark
+    public FibaroAbstractThingHandler[] getWhileUpdating() {
+        int id = randomId();
+        if (ThreadLocalRandom.current().nextInt(100) < MIX_WRITES) {
+            bridge.removeThing(id, handlers[id]);
+            bridge.addThing(id, handlers[id]);
+        }
+        return bridge.getThings(id);
+    }
+
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.client.util.StringContentProvider;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.server.NetworkConnector;
+import org.eclipse.jetty.server.Server;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.fibaro.internal.FibaroLatencyHistogram;
+import org.openhab.binding.fibaro.internal.FibaroMetric;
+import org.openhab.binding.fibaro.internal.FibaroMetrics;
+import org.openhab.binding.fibaro.internal.model.json.FibaroUpdate;
+
+/**
+ * Drives the {@link FibaroServerHandler} without a bridge, dispatching the updates to a list
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroServerHandlerTest {
+
+    private final List<FibaroUpdate> updates = new CopyOnWriteArrayList<FibaroUpdate>();
+    private final FibaroMetrics metrics = new FibaroMetrics();
+
+    private final AtomicInteger resyncs = new AtomicInteger();
+
+    private volatile boolean accept = true;
+    private volatile int rejectedId;
+    private Server server;
+    private HttpClient httpClient;
+    private String url;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new Server(0);
+        server.setHandler(new FibaroServerHandler(update -> {
+            updates.add(update);
+            return accept && update.getId() != rejectedId;
+        }, resyncs::incrementAndGet, metrics));
+        server.start();
+        url = "http://localhost:" + ((NetworkConnector) server.getConnectors()[0]).getLocalPort() + "/";
+
+        httpClient = new HttpClient();
+        httpClient.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.stop();
+        server.stop();
+    }
+
+    private ContentResponse post(String content) throws Exception {
+        return httpClient.newRequest(url).method(HttpMethod.POST)
+                .content(new StringContentProvider(content), "application/json").timeout(5, TimeUnit.SECONDS).send();
+    }
+
+    @Test
+    public void dispatchesASingleUpdate() throws Exception {
+        ContentResponse response = post("{\"id\":5,\"property\":\"value\",\"value\":\"1\"}");
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(updates.size(), is(1));
+        assertThat(updates.get(0).getId(), is(5));
+        assertThat(updates.get(0).getProperty(), is("value"));
+        assertThat(updates.get(0).getValue(), is("1"));
+    }
+
+    @Test
+    public void dispatchesArraysAndNewlineDelimitedUpdatesInOrder() throws Exception {
+        ContentResponse response = post("[{\"id\":1,\"property\":\"value\",\"value\":\"1\"},"
+                + "{\"id\":2,\"property\":\"power\",\"value\":\"3.5\"}]\n"
+                + "{\"id\":3,\"property\":\"value\",\"value\":\"0\"}\n");
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(updates.size(), is(3));
+        assertThat(updates.get(0).getId(), is(1));
+        assertThat(updates.get(1).getId(), is(2));
+        assertThat(updates.get(2).getId(), is(3));
+    }
+
+    @Test
+    public void answersRejectedUpdatesWithRetryAfter() throws Exception {
+        accept = false;
+        ContentResponse response = post("{\"id\":5,\"property\":\"value\",\"value\":\"1\"}");
+
+        assertThat(response.getStatus(), is(503));
+        assertThat(response.getHeaders().get(HttpHeader.RETRY_AFTER), is(notNullValue()));
+        assertThat(resyncs.get(), is(0));
+    }
+
+    @Test
+    public void resyncsInsteadOfReplayingPartlyRejectedRequests() throws Exception {
+        rejectedId = 2;
+        ContentResponse response = post("[{\"id\":1,\"property\":\"value\",\"value\":\"1\"},"
+                + "{\"id\":2,\"property\":\"value\",\"value\":\"1\"}]");
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaders().get(HttpHeader.RETRY_AFTER), is(nullValue()));
+        assertThat(resyncs.get(), is(1));
+    }
+
+    @Test
+    public void answersAnEmptyBodyWithBadRequest() throws Exception {
+        assertThat(post("").getStatus(), is(400));
+    }
+
+    @Test
+    public void answersATruncatedBodyWithBadRequest() throws Exception {
+        assertThat(post("{\"id\":5,\"property\":\"val").getStatus(), is(400));
+        assertThat(post("{\"id\":5,").getStatus(), is(400));
+    }
+
+    @Test
+    public void recordsEveryRequest() throws Exception {
+        post("{\"id\":5,\"property\":\"value\",\"value\":\"1\"}");
+        post("");
+
+        FibaroLatencyHistogram.Snapshot snapshot = metrics.snapshot(FibaroMetric.PUSH_INGESTION);
+        assertThat(snapshot.getCount(), is(2L));
+        assertThat(snapshot.getErrors(), is(1L));
+    }
+
+}
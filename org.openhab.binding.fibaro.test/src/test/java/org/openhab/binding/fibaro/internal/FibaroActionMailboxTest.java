@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests which of the actions submitted to a {@link FibaroActionMailbox} while one is being sent are sent
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroActionMailboxTest {
+
+    private final List<String> sent = new ArrayList<String>();
+    private final List<CompletableFuture<Object>> inFlight = new ArrayList<CompletableFuture<Object>>();
+
+    private FibaroActionMailbox mailbox;
+
+    @Before
+    public void setUp() {
+        mailbox = new FibaroActionMailbox((url, content) -> {
+            sent.add(url);
+            CompletableFuture<Object> future = new CompletableFuture<Object>();
+            inFlight.add(future);
+            return future;
+        });
+    }
+
+    private void completeAll() {
+        // Completing an action sends the next one, which adds to the list
+        for (int i = 0; i < inFlight.size(); i++) {
+            inFlight.get(i).complete(null);
+        }
+    }
+
+    @Test
+    public void sendsOnlyTheLatestWaitingAction() {
+        mailbox.submit("setValue/10", "");
+        mailbox.submit("setValue/20", "");
+        mailbox.submit("setValue/30", "");
+        completeAll();
+
+        assertThat(sent, is(Arrays.asList("setValue/10", "setValue/30")));
+        assertThat(mailbox.getSuperseded(), is(1L));
+    }
+
+    @Test
+    public void sendsEveryWaitingStep() {
+        mailbox.submit("turnOn", "");
+        mailbox.submitStep("startLevelIncrease", "");
+        mailbox.submitStep("startLevelIncrease", "");
+        mailbox.submitStep("startLevelDecrease", "");
+        completeAll();
+
+        assertThat(sent, is(Arrays.asList("turnOn", "startLevelIncrease", "startLevelIncrease",
+                "startLevelDecrease")));
+        assertThat(mailbox.getSuperseded(), is(0L));
+    }
+
+    @Test
+    public void replacesWaitingStepsWithALaterAction() {
+        mailbox.submit("turnOn", "");
+        mailbox.submitStep("startLevelIncrease", "");
+        mailbox.submitStep("startLevelIncrease", "");
+        mailbox.submit("turnOff", "");
+        completeAll();
+
+        assertThat(sent, is(Arrays.asList("turnOn", "turnOff")));
+        assertThat(mailbox.getSuperseded(), is(2L));
+    }
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.fibaro.FibaroChannel;
+
+/**
+ * Tests the suppression and republishing of channel states by the {@link FibaroStateFilter}
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroStateFilterTest {
+
+    private static final long REPUBLISH_INTERVAL = 100;
+
+    private final BlockingQueue<State> published = new LinkedBlockingQueue<State>();
+    private final LongAdder suppressed = new LongAdder();
+
+    private ScheduledExecutorService scheduler;
+    private FibaroStateFilter filter;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        filter = new FibaroStateFilter(REPUBLISH_INTERVAL, suppressed, scheduler,
+                (channel, state) -> published.add(state));
+    }
+
+    @After
+    public void tearDown() {
+        filter.stop();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void suppressesUnchangedStates() {
+        long now = System.currentTimeMillis();
+        assertTrue(filter.shouldPublish(FibaroChannel.POWER, new DecimalType(3), now));
+        assertFalse(filter.shouldPublish(FibaroChannel.POWER, new DecimalType(3), now + 1));
+        assertTrue(filter.shouldPublish(FibaroChannel.POWER, new DecimalType(4), now + 2));
+        assertThat(suppressed.sum(), is(1L));
+    }
+
+    @Test
+    public void republishesWithoutNewUpdates() throws Exception {
+        assertTrue(filter.shouldPublish(FibaroChannel.POWER, new DecimalType(3), System.currentTimeMillis()));
+
+        assertThat(published.poll(5, TimeUnit.SECONDS), is(new DecimalType(3)));
+        assertThat(published.poll(5, TimeUnit.SECONDS), is(new DecimalType(3)));
+    }
+
+    @Test
+    public void stopsRepublishingAResetChannel() throws Exception {
+        assertTrue(filter.shouldPublish(FibaroChannel.POWER, new DecimalType(3), System.currentTimeMillis()));
+        filter.reset(FibaroChannel.POWER);
+
+        assertThat(published.poll(REPUBLISH_INTERVAL * 3, TimeUnit.MILLISECONDS), is(nullValue()));
+    }
+
+    @Test
+    public void publishesAnUnchangedStateAfterACommand() {
+        long now = System.currentTimeMillis();
+        assertTrue(filter.shouldPublish(FibaroChannel.SWITCH, OnOffType.OFF, now));
+        // The item shows ON after autoupdate, the device reports it is still off
+        filter.invalidate(FibaroChannel.SWITCH);
+
+        assertTrue(filter.shouldPublish(FibaroChannel.SWITCH, OnOffType.OFF, now + 1));
+        assertFalse(filter.shouldPublish(FibaroChannel.SWITCH, OnOffType.OFF, now + 2));
+    }
+
+    @Test
+    public void keepsRepublishingAfterACommand() throws Exception {
+        assertTrue(filter.shouldPublish(FibaroChannel.SWITCH, OnOffType.OFF, System.currentTimeMillis()));
+        filter.invalidate(FibaroChannel.SWITCH);
+
+        // No state arrives as the command failed, the last device state corrects the item
+        assertThat(published.poll(5, TimeUnit.SECONDS), is(OnOffType.OFF));
+    }
+
+}
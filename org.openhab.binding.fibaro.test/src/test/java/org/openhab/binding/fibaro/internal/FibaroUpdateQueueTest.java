@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.fibaro.internal.model.FibaroPropertyKeys;
+import org.openhab.binding.fibaro.internal.model.json.FibaroUpdate;
+
+/**
+ * Tests which of the updates offered to a {@link FibaroUpdateQueue} are merged, dropped and handled
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroUpdateQueueTest {
+
+    private static final int CAPACITY = 4;
+    private static final String EVENT = "tamper";
+
+    private final List<String> handled = new CopyOnWriteArrayList<String>();
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    private StripedExecutor executor;
+    private FibaroUpdateQueue queue;
+
+    @Before
+    public void setUp() {
+        // A single stripe, blocked until the updates have been offered
+        executor = new StripedExecutor("fibaro-update-queue-test", 1);
+        executor.execute(0, () -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        queue = createQueue(0);
+    }
+
+    private FibaroUpdateQueue createQueue(int reserved) {
+        // Tamper updates are events, all others meter readings
+        return new FibaroUpdateQueue(executor,
+                update -> handled.add(update.getId() + ":" + update.getProperty() + "=" + update.getValue()),
+                update -> EVENT.equals(update.getProperty()), CAPACITY, reserved);
+    }
+
+    @After
+    public void tearDown() {
+        blocked.countDown();
+        executor.shutdown();
+    }
+
+    private static FibaroUpdate update(int id, String property, String value) {
+        FibaroUpdate update = new FibaroUpdate();
+        update.setId(id);
+        update.setProperty(property);
+        update.setValue(value);
+        return update;
+    }
+
+    private void handleAll(int expected) throws InterruptedException {
+        blocked.countDown();
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (handled.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(queue.size(), is(0));
+    }
+
+    @Test
+    public void mergesUpdatesOfTheSameProperty() throws InterruptedException {
+        assertThat(queue.offer(update(1, "value", "0")), is(true));
+        assertThat(queue.offer(update(1, "value", "1")), is(true));
+        assertThat(queue.offer(update(2, "value", "1")), is(true));
+
+        assertThat(queue.getMerged(), is(1L));
+        handleAll(2);
+        assertThat(handled.size(), is(2));
+        assertThat(handled.contains("1:value=1"), is(true));
+        assertThat(handled.contains("2:value=1"), is(true));
+    }
+
+    @Test
+    public void unknownPropertiesAreNotInterned() throws InterruptedException {
+        assertThat(queue.offer(update(1, "pushedOnlyProperty", "0")), is(true));
+
+        handleAll(1);
+        assertThat(handled, is(Collections.singletonList("1:pushedOnlyProperty=0")));
+        assertThat(FibaroPropertyKeys.find("pushedOnlyProperty"), is(-1));
+    }
+
+    @Test
+    public void mergesUpdatesOfTheSameUnknownProperty() throws InterruptedException {
+        assertThat(queue.offer(update(1, "unknownProperty", "0")), is(true));
+        assertThat(queue.offer(update(1, "unknownProperty", "1")), is(true));
+        assertThat(queue.offer(update(2, "unknownProperty", "0")), is(true));
+        assertThat(queue.offer(update(1, "otherUnknownProperty", "0")), is(true));
+
+        assertThat(queue.getMerged(), is(1L));
+        assertThat(queue.size(), is(3));
+        handleAll(3);
+        assertThat(handled.size(), is(3));
+        assertThat(handled.contains("1:unknownProperty=1"), is(true));
+        assertThat(handled.contains("2:unknownProperty=0"), is(true));
+        assertThat(handled.contains("1:otherUnknownProperty=0"), is(true));
+    }
+
+    @Test
+    public void unknownPropertiesCountTowardsTheCapacity() {
+        for (int id = 1; id < CAPACITY; id++) {
+            assertThat(queue.offer(update(id, "value", "0")), is(true));
+        }
+        assertThat(queue.offer(update(1, "unknownProperty", "0")), is(true));
+
+        assertThat(queue.offer(update(2, "unknownProperty", "0")), is(false));
+        assertThat(queue.offer(update(CAPACITY, "value", "0")), is(false));
+        assertThat(queue.getDropped(), is(2L));
+        // Merging into a pending update needs no room
+        assertThat(queue.offer(update(1, "unknownProperty", "1")), is(true));
+    }
+
+    @Test
+    public void rejectsUpdatesOnceTheExecutorIsShutDown() {
+        executor.shutdown();
+
+        assertThat(queue.offer(update(1, "value", "1")), is(false));
+        assertThat(queue.size(), is(0));
+    }
+
+    @Test
+    public void handlesEveryEventTransition() throws InterruptedException {
+        assertThat(queue.offer(update(1, EVENT, "1")), is(true));
+        assertThat(queue.offer(update(1, EVENT, "0")), is(true));
+        assertThat(queue.offer(update(1, EVENT, "1")), is(true));
+
+        assertThat(queue.getMerged(), is(0L));
+        handleAll(3);
+        assertThat(handled, is(Arrays.asList("1:tamper=1", "1:tamper=0", "1:tamper=1")));
+    }
+
+    @Test
+    public void mergesEqualEvents() throws InterruptedException {
+        assertThat(queue.offer(update(1, EVENT, "1")), is(true));
+        assertThat(queue.offer(update(1, EVENT, "1")), is(true));
+        assertThat(queue.offer(update(1, EVENT, "0")), is(true));
+        assertThat(queue.offer(update(1, EVENT, "0")), is(true));
+
+        assertThat(queue.getMerged(), is(2L));
+        handleAll(2);
+        assertThat(handled, is(Arrays.asList("1:tamper=1", "1:tamper=0")));
+    }
+
+    @Test
+    public void keepsTheReserveForEvents() {
+        queue = createQueue(2);
+        assertThat(queue.offer(update(1, "value", "1")), is(true));
+        assertThat(queue.offer(update(2, "value", "0")), is(true));
+
+        // Binary values of meter properties do not make them events
+        assertThat(queue.offer(update(3, "value", "1")), is(false));
+        assertThat(queue.offer(update(1, EVENT, "1")), is(true));
+        assertThat(queue.offer(update(2, EVENT, "1")), is(true));
+        assertThat(queue.offer(update(3, EVENT, "1")), is(false));
+    }
+
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * Tests the lookups, eviction and statistics of the {@link InMemoryCache}
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class InMemoryCacheTest {
+
+    private final InMemoryCache<Integer, String> cache = new InMemoryCache<Integer, String>(60, 10);
+
+    @Test
+    public void countsHitsAndMisses() {
+        cache.put(1, "one");
+
+        assertThat(cache.get(1), is("one"));
+        assertThat(cache.get(2), is(nullValue()));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(1L));
+    }
+
+    @Test
+    public void peekDoesNotCountHitsOrMisses() {
+        cache.put(1, "one");
+
+        assertThat(cache.peek(1), is("one"));
+        assertThat(cache.peek(2), is(nullValue()));
+        assertThat(cache.getHits(), is(0L));
+        assertThat(cache.getMisses(), is(0L));
+    }
+
+    @Test
+    public void evictsTheEntryPutFirst() {
+        for (int i = 1; i <= 11; i++) {
+            cache.put(i, "value" + i);
+        }
+
+        assertThat(cache.size(), is(10));
+        assertThat(cache.peek(1), is(nullValue()));
+        assertThat(cache.peek(2), is("value2"));
+        assertThat(cache.getEvictions(), is(1L));
+    }
+
+    @Test
+    public void refreshedEntryIsEvictedLast() {
+        for (int i = 1; i <= 10; i++) {
+            cache.put(i, "value" + i);
+        }
+        cache.put(1, "refreshed");
+        cache.put(11, "value11");
+
+        assertThat(cache.peek(1), is("refreshed"));
+        assertThat(cache.peek(2), is(nullValue()));
+        assertThat(cache.getEvictions(), is(1L));
+    }
+
+    @Test
+    public void removedEntryIsNotCountedAsEvicted() {
+        for (int i = 1; i <= 10; i++) {
+            cache.put(i, "value" + i);
+        }
+        cache.remove(1);
+        cache.put(11, "value11");
+        cache.put(12, "value12");
+
+        assertThat(cache.size(), is(10));
+        assertThat(cache.peek(2), is(nullValue()));
+        assertThat(cache.peek(3), is("value3"));
+        assertThat(cache.getEvictions(), is(1L));
+    }
+
+    @Test
+    public void refreshesKeepEntriesCached() {
+        for (int round = 0; round < 100; round++) {
+            for (int i = 1; i <= 10; i++) {
+                cache.put(i, "value" + i + "." + round);
+            }
+        }
+
+        assertThat(cache.size(), is(10));
+        assertThat(cache.peek(1), is("value1.99"));
+        assertThat(cache.getEvictions(), is(0L));
+    }
+
+    @Test
+    public void cleanupRemovesExpiredEntries() throws InterruptedException {
+        InMemoryCache<Integer, String> expiring = new InMemoryCache<Integer, String>(0, 10);
+        expiring.put(1, "one");
+        expiring.put(2, "two");
+        Thread.sleep(5);
+        expiring.cleanup();
+
+        assertThat(expiring.size(), is(0));
+        assertThat(expiring.getEvictions(), is(2L));
+    }
+
+    @Test
+    public void staysBoundedUnderConcurrentWriters() throws InterruptedException {
+        List<Thread> writers = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    int key = ThreadLocalRandom.current().nextInt(50);
+                    if (i % 10 == 0) {
+                        cache.remove(key);
+                    } else {
+                        cache.put(key, "value" + key);
+                    }
+                }
+            }));
+        }
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        // A writer that finds another one evicting leaves its key to it, at most one key per writer can be left over
+        assertThat(cache.size() <= 10 + writers.size(), is(true));
+        cache.put(100, "value100");
+        assertThat(cache.size() <= 10, is(true));
+    }
+
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.communicator.client;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.server.NetworkConnector;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.fibaro.internal.FibaroMetrics;
+
+/**
+ * Tests the {@link FibaroApiClient} against a local server sending its responses slowly
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroApiClientTest {
+
+    private static final int CONNECTIONS = 8;
+
+    private Server server;
+    private FibaroHttpClient httpClient;
+    private String url;
+
+    /**
+     * Sends the first half of a json array, waits and then sends the rest
+     */
+    private static class SlowHandler extends AbstractHandler {
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request,
+                HttpServletResponse response) throws IOException {
+            response.setContentType("application/json");
+            PrintWriter writer = response.getWriter();
+            writer.write("[1,2,");
+            writer.flush();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer.write("3]");
+            baseRequest.setHandled(true);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        server = new Server(0);
+        server.setHandler(new SlowHandler());
+        server.start();
+        url = "http://localhost:" + ((NetworkConnector) server.getConnectors()[0]).getLocalPort() + "/api/devices";
+
+        httpClient = new FibaroHttpClient(CONNECTIONS, 256);
+        httpClient.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.stop();
+        server.stop();
+    }
+
+    @Test
+    public void parsesMoreStreamsThanTheHttpClientHasThreads() throws Exception {
+        // More streams than the http client has threads, every parser blocks until its content arrives, which the
+        // http client threads have to deliver
+        int streams = 32;
+        FibaroApiClient apiClient = new FibaroApiClient(httpClient.getHttpClient(), httpClient.getParserExecutor(),
+                "admin", "admin", streams, 5, 1024, new FibaroMetrics());
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<CompletableFuture<Integer>>();
+        for (int i = 0; i < streams; i++) {
+            futures.add(apiClient.stream(HttpMethod.GET, url, "", reader -> {
+                int count = 0;
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    reader.nextInt();
+                    count++;
+                }
+                reader.endArray();
+                return count;
+            }));
+        }
+        for (CompletableFuture<Integer> future : futures) {
+            assertThat(future.get(10, TimeUnit.SECONDS), is(3));
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.communicator.client;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.server.NetworkConnector;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.fibaro.internal.FibaroMetrics;
+import org.openhab.binding.fibaro.internal.model.json.FibaroUpdate;
+
+/**
+ * Runs the {@link FibaroRefreshStatesPoller} against a local stub serving the refreshStates api
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroRefreshStatesPollerTest {
+
+    private final List<String> requestedLasts = new CopyOnWriteArrayList<String>();
+    private final List<FibaroUpdate> updates = new CopyOnWriteArrayList<FibaroUpdate>();
+
+    private Server server;
+    private HttpClient httpClient;
+    private ScheduledExecutorService scheduler;
+    private FibaroRefreshStatesPoller poller;
+    private String baseUrl;
+
+    /**
+     * Answers the first poll with changes already known from the initial device fetch, the second poll with new
+     * changes and all later polls with no changes
+     */
+    private class RefreshStatesStub extends AbstractHandler {
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request,
+                HttpServletResponse response) throws IOException {
+            String last = request.getParameter("last");
+            requestedLasts.add(last);
+            response.setContentType("application/json");
+            if ("0".equals(last)) {
+                response.getWriter().write("{\"last\":10,\"changes\":[{\"id\":1,\"value\":\"1\"}]}");
+            } else if ("10".equals(last)) {
+                response.getWriter()
+                        .write("{\"last\":11,\"changes\":[{\"id\":5,\"value\":\"22.5\",\"power\":\"3\",\"log\":{}}]}");
+            } else {
+                response.getWriter().write("{\"last\":11,\"changes\":[]}");
+            }
+            baseRequest.setHandled(true);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        server = new Server(0);
+        server.setHandler(new RefreshStatesStub());
+        server.start();
+        baseUrl = "http://localhost:" + ((NetworkConnector) server.getConnectors()[0]).getLocalPort();
+
+        httpClient = new HttpClient();
+        httpClient.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (poller != null) {
+            poller.stop();
+        }
+        scheduler.shutdownNow();
+        httpClient.stop();
+        server.stop();
+    }
+
+    private FibaroApiClient createApiClient() {
+        // A single slot, which the long-poll must not take
+        return new FibaroApiClient(httpClient, scheduler, "admin", "admin", 1, 5, 1024 * 1024, new FibaroMetrics());
+    }
+
+    @Test
+    public void dispatchesOnlyChangesAfterTheFirstPoll() throws Exception {
+        CountDownLatch received = new CountDownLatch(2);
+        AtomicInteger resyncs = new AtomicInteger();
+        poller = new FibaroRefreshStatesPoller(createApiClient(), baseUrl, scheduler, update -> {
+            updates.add(update);
+            received.countDown();
+            return true;
+        }, resyncs::incrementAndGet, 50);
+        poller.start();
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertThat(requestedLasts.get(0), is("0"));
+        assertThat(requestedLasts.get(1), is("10"));
+        assertThat(updates.size(), is(2));
+        for (FibaroUpdate update : updates) {
+            assertThat(update.getId(), is(5));
+        }
+        assertThat(updates.get(0).getProperty(), is("value"));
+        assertThat(updates.get(0).getValue(), is("22.5"));
+        assertThat(updates.get(1).getProperty(), is("power"));
+        assertThat(updates.get(1).getValue(), is("3"));
+        assertThat(poller.getLast(), is(11L));
+        assertThat(resyncs.get(), is(0));
+    }
+
+    @Test
+    public void requestsResyncWhenUpdatesAreRejected() throws Exception {
+        CountDownLatch resynced = new CountDownLatch(1);
+        poller = new FibaroRefreshStatesPoller(createApiClient(), baseUrl, scheduler, update -> false,
+                resynced::countDown, 50);
+        poller.start();
+
+        assertTrue(resynced.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void longPollDoesNotTakeARequestSlot() throws Exception {
+        FibaroApiClient apiClient = createApiClient();
+        CountDownLatch polled = new CountDownLatch(1);
+        poller = new FibaroRefreshStatesPoller(apiClient, baseUrl, scheduler, update -> {
+            polled.countDown();
+            return true;
+        }, () -> {
+        }, 50);
+        poller.start();
+
+        assertTrue(polled.await(5, TimeUnit.SECONDS));
+        assertThat(apiClient.getRequestsInFlight(), is(0));
+    }
+
+}
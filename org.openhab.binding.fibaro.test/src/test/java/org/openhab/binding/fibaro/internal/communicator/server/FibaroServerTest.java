@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.communicator.server;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.eclipse.jetty.server.NetworkConnector;
+import org.eclipse.jetty.server.handler.DefaultHandler;
+import org.junit.Test;
+import org.openhab.binding.fibaro.config.FibaroGatewayConfiguration;
+import org.openhab.binding.fibaro.internal.exception.FibaroConfigurationException;
+
+/**
+ * Tests the validation of the {@link FibaroServer} settings
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroServerTest {
+
+    private FibaroGatewayConfiguration createConfig(int maxThreads, int acceptors, int selectors) {
+        FibaroGatewayConfiguration config = new FibaroGatewayConfiguration();
+        config.serverMaxThreads = maxThreads;
+        config.serverAcceptors = acceptors;
+        config.serverSelectors = selectors;
+        return config;
+    }
+
+    @Test(expected = FibaroConfigurationException.class)
+    public void rejectsAThreadPoolWithoutRoomForRequests() throws Exception {
+        new FibaroServer(0, createConfig(4, 2, 2), new DefaultHandler());
+    }
+
+    @Test(expected = FibaroConfigurationException.class)
+    public void rejectsAThreadPoolJettyRefusesToStart() throws Exception {
+        new FibaroServer(0, createConfig(5, 2, 2), new DefaultHandler());
+    }
+
+    @Test
+    public void startsWithRoomForRequests() throws Exception {
+        FibaroServer server = new FibaroServer(0, createConfig(8, 2, 2), new DefaultHandler());
+        try {
+            assertThat(server.getMaxThreads(), is(8));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void releasesItsThreadsWhenThePortIsInUse() throws Exception {
+        FibaroServer server = new FibaroServer(0, createConfig(8, 1, 1), new DefaultHandler());
+        try {
+            int port = ((NetworkConnector) server.server.getConnectors()[0]).getLocalPort();
+            String threadName = "fibaro-server-" + port;
+            int threads = countThreads(threadName);
+            try {
+                new FibaroServer(port, createConfig(8, 1, 1), new DefaultHandler());
+                fail("Second server started on port " + port);
+            } catch (IOException e) {
+                // Port in use
+            }
+            assertThat(countThreads(threadName), is(threads));
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static int countThreads(String name) {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith(name)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void comparesTheSettingsTheServerRunsWith() {
+        FibaroGatewayConfiguration config = createConfig(8, 1, 1);
+        assertThat(FibaroServer.getSettings(config), is(FibaroServer.getSettings(createConfig(8, 1, 1))));
+        config.serverKeepAlive = false;
+        assertThat(FibaroServer.getSettings(config), is(not(FibaroServer.getSettings(createConfig(8, 1, 1)))));
+    }
+
+}
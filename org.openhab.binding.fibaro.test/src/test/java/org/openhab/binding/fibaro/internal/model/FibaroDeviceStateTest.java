@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.model;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests that the properties of a {@link FibaroDeviceState} are read back as they were reported
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroDeviceStateTest {
+
+    private final FibaroDeviceState state = new FibaroDeviceState();
+
+    private String roundTrip(String value) {
+        state.setProperty("value", value);
+        return state.getProperty("value");
+    }
+
+    @Test
+    public void readsNumbersBackExactly() {
+        assertThat(roundTrip("1.50"), is("1.50"));
+        assertThat(roundTrip("12345678.9"), is("12345678.9"));
+        assertThat(roundTrip("0.0001"), is("0.0001"));
+        assertThat(roundTrip("-22.5"), is("-22.5"));
+        assertThat(roundTrip("0"), is("0"));
+        assertThat(roundTrip("9007199254740993"), is("9007199254740993"));
+        assertThat(roundTrip("999999999999999999"), is("999999999999999999"));
+    }
+
+    @Test
+    public void keepsValuesThatAreNotPlainNumbersAsStrings() {
+        assertThat(roundTrip("007"), is("007"));
+        assertThat(roundTrip("-0"), is("-0"));
+        assertThat(roundTrip("1e3"), is("1e3"));
+        assertThat(roundTrip("12345678901234567890"), is("12345678901234567890"));
+        assertThat(roundTrip("1."), is("1."));
+        assertThat(roundTrip("true"), is("true"));
+    }
+
+    @Test
+    public void formatsDoublesWithoutExponent() {
+        state.setProperty("value", 1.0E7 + 0.5);
+        assertThat(state.getProperty("value"), is("10000000.5"));
+        state.setProperty("value", 1.0E-4);
+        assertThat(state.getProperty("value"), is("0.0001"));
+        state.setProperty("value", 1.0E20);
+        assertThat(state.getProperty("value"), is("100000000000000000000"));
+    }
+
+    @Test
+    public void ignoresUpdatesOfUnknownProperties() {
+        String property = "neverFetched" + System.nanoTime();
+
+        assertFalse(state.updateProperty(property, "1"));
+        assertFalse(state.updateProperty(null, "1"));
+        assertThat(FibaroPropertyKeys.find(property), is(-1));
+        assertThat(state.getPropertyCount(), is(0));
+    }
+
+    @Test
+    public void appliesUpdatesOfKnownProperties() {
+        assertTrue(state.updateProperty("value", "1"));
+        assertThat(state.getProperty("value"), is("1"));
+        assertTrue(state.updateProperty("value", null));
+        assertThat(state.hasProperty("value"), is(false));
+    }
+
+}
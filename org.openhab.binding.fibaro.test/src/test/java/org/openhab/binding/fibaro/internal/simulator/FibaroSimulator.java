@@ -0,0 +1,554 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.simulator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.util.StringContentProvider;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.server.NetworkConnector;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.openhab.binding.fibaro.internal.model.json.FibaroUpdate;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Stand-in for a Fibaro Home Center 2 on an embedded Jetty, for load and end-to-end tests without a real controller.
+ * It serves the parts of the api the binding uses with the json shapes of the real controller:
+ * <ul>
+ * <li>GET /api/devices: all devices</li>
+ * <li>GET /api/devices/{id}: a single device</li>
+ * <li>POST /api/devices/{id}/action/{action}: turnOn, turnOff, setValue, startLevelIncrease and startLevelDecrease,
+ * answered with a {@code FibaroApiResponse}</li>
+ * <li>GET /api/settings/info: the {@code FibaroSettings}</li>
+ * </ul>
+ * Every request can be delayed and a share of them answered with errors, see {@link FibaroSimulatorConfiguration}.
+ * Like the real controller the simulator pushes the changed device properties as {@link FibaroUpdate}s to the
+ * binding's listener, both for actions and for random changes sent at a configurable rate.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroSimulator {
+
+    private static final String API_PATH = "/api/";
+    private static final String DEVICES_PATH = "devices";
+    private static final String ACTION_PATH = "action";
+    private static final String SETTINGS_PATH = "settings/info";
+    private static final int LEVEL_STEP = 10;
+
+    private final FibaroSimulatorConfiguration config;
+    private final String authorization;
+    private final Gson gson = new Gson();
+    private final Map<Integer, SimulatedDevice> devices = new ConcurrentHashMap<Integer, SimulatedDevice>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder actions = new LongAdder();
+    private final LongAdder pushRequests = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder pushed = new LongAdder();
+    private final LongAdder pushRejected = new LongAdder();
+    private final LongAdder pushFailed = new LongAdder();
+
+    private Server server;
+    private HttpClient httpClient;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pushJob;
+    private volatile String pushUrl;
+
+    /**
+     * The device types a simulated installation is made of, in equal numbers
+     */
+    private enum DeviceType {
+        SWITCH("com.fibaro.binarySwitch", "com.fibaro.binarySwitch"),
+        DIMMER("com.fibaro.FGD212", "com.fibaro.multilevelSwitch"),
+        TEMPERATURE("com.fibaro.temperatureSensor", "com.fibaro.multilevelSensor"),
+        MOTION("com.fibaro.FGMS001", "com.fibaro.motionSensor"),
+        DOOR("com.fibaro.FGK101", "com.fibaro.doorSensor");
+
+        private final String type;
+        private final String baseType;
+
+        private DeviceType(String type, String baseType) {
+            this.type = type;
+            this.baseType = baseType;
+        }
+    }
+
+    private static class SimulatedDevice {
+        final int id;
+        final String name;
+        final DeviceType type;
+        final Map<String, String> properties = new ConcurrentHashMap<String, String>();
+        final int created;
+        volatile int modified;
+
+        SimulatedDevice(int id, DeviceType type, int created) {
+            this.id = id;
+            this.name = type.name().toLowerCase() + " " + id;
+            this.type = type;
+            this.created = created;
+            this.modified = created;
+            properties.put("value", type == DeviceType.TEMPERATURE ? "21.50" : "0");
+            properties.put("dead", "false");
+            switch (type) {
+                case SWITCH:
+                case DIMMER:
+                    properties.put("power", "0.00");
+                    properties.put("energy", "0.00");
+                    break;
+                default:
+                    properties.put("batteryLevel", "100");
+                    break;
+            }
+        }
+    }
+
+    public FibaroSimulator(FibaroSimulatorConfiguration config) {
+        this.config = config;
+        this.authorization = config.username == null || config.username.isEmpty() ? null
+                : "Basic " + Base64.getEncoder()
+                        .encodeToString((config.username + ":" + config.password).getBytes(StandardCharsets.UTF_8));
+        int now = now();
+        DeviceType[] types = DeviceType.values();
+        for (int id = 1; id <= config.deviceCount; id++) {
+            devices.put(id, new SimulatedDevice(id, types[id % types.length], now));
+        }
+    }
+
+    public void start() throws Exception {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        httpClient = new HttpClient();
+        httpClient.start();
+        server = new Server(config.port);
+        server.setHandler(new ApiHandler());
+        server.start();
+    }
+
+    public void stop() throws Exception {
+        stopPushing();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (server != null) {
+            server.stop();
+        }
+        if (httpClient != null) {
+            httpClient.stop();
+        }
+    }
+
+    /**
+     * The address the binding's ip address parameter is set to
+     */
+    public String getAddress() {
+        return "localhost:" + ((NetworkConnector) server.getConnectors()[0]).getLocalPort();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + getAddress();
+    }
+
+    /**
+     * Sets where the changes caused by actions are pushed to, as the controller does with its scenes
+     *
+     * @param pushUrl Url of the binding's listener, for example http://localhost:9000/fibaro/hc2, null to not push
+     */
+    public void setPushUrl(String pushUrl) {
+        this.pushUrl = pushUrl;
+    }
+
+    /**
+     * Starts changing random device properties and pushing the changes to the binding's listener
+     *
+     * @param pushUrl Url of the binding's listener
+     * @param updatesPerSecond Number of updates pushed per second
+     * @param updatesPerRequest Number of updates sent together in one request, as a json array if more than one
+     */
+    public synchronized void startPushing(String pushUrl, int updatesPerSecond, int updatesPerRequest) {
+        stopPushing();
+        this.pushUrl = pushUrl;
+        long period = TimeUnit.SECONDS.toMicros(updatesPerRequest) / updatesPerSecond;
+        pushJob = scheduler.scheduleAtFixedRate(() -> pushRandomChanges(updatesPerRequest), 0, Math.max(period, 1),
+                TimeUnit.MICROSECONDS);
+    }
+
+    public synchronized void stopPushing() {
+        if (pushJob != null) {
+            pushJob.cancel(false);
+            pushJob = null;
+        }
+    }
+
+    /**
+     * Number of api requests received
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Number of api requests answered with an injected error
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Number of device actions received
+     */
+    public long getActions() {
+        return actions.sum();
+    }
+
+    /**
+     * Number of push requests sent
+     */
+    public long getPushRequests() {
+        return pushRequests.sum();
+    }
+
+    /**
+     * Number of updates pushed and accepted by the listener
+     */
+    public long getPushed() {
+        return pushed.sum();
+    }
+
+    /**
+     * Number of updates in requests the listener answered with 503 Service Unavailable to shed load
+     */
+    public long getPushRejected() {
+        return pushRejected.sum();
+    }
+
+    /**
+     * Number of updates in requests that failed or were answered with any other error
+     */
+    public long getPushFailed() {
+        return pushFailed.sum();
+    }
+
+    /**
+     * Number of pushed updates whose request has not been answered yet
+     */
+    public long getPushPending() {
+        return sent.sum() - pushed.sum() - pushRejected.sum() - pushFailed.sum();
+    }
+
+    /**
+     * Gets a property of a simulated device
+     */
+    public String getProperty(int id, String property) {
+        SimulatedDevice device = devices.get(id);
+        return device == null ? null : device.properties.get(property);
+    }
+
+    private void pushRandomChanges(int count) {
+        List<FibaroUpdate> updates = new ArrayList<FibaroUpdate>(count);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; i++) {
+            SimulatedDevice device = devices.get(1 + random.nextInt(devices.size()));
+            String property;
+            String value;
+            switch (device.type) {
+                case SWITCH:
+                    property = random.nextBoolean() ? "value" : "power";
+                    value = property.equals("value") ? String.valueOf(random.nextInt(2))
+                            : String.format(Locale.ROOT, "%.2f", random.nextDouble() * 100);
+                    break;
+                case DIMMER:
+                    property = random.nextBoolean() ? "value" : "power";
+                    value = property.equals("value") ? String.valueOf(random.nextInt(100))
+                            : String.format(Locale.ROOT, "%.2f", random.nextDouble() * 100);
+                    break;
+                case TEMPERATURE:
+                    property = "value";
+                    value = String.format(Locale.ROOT, "%.2f", 15 + random.nextDouble() * 10);
+                    break;
+                default:
+                    property = "value";
+                    value = String.valueOf(random.nextInt(2));
+                    break;
+            }
+            updates.add(change(device, property, value));
+        }
+        push(updates);
+    }
+
+    private FibaroUpdate change(SimulatedDevice device, String property, String value) {
+        device.properties.put(property, value);
+        device.modified = now();
+        FibaroUpdate update = new FibaroUpdate();
+        update.setId(device.id);
+        update.setName(device.name);
+        update.setProperty(property);
+        update.setValue(value);
+        return update;
+    }
+
+    private void push(List<FibaroUpdate> updates) {
+        String url = pushUrl;
+        if (url == null || updates.isEmpty()) {
+            return;
+        }
+        int count = updates.size();
+        String content = count == 1 ? gson.toJson(updates.get(0)) : gson.toJson(updates);
+        pushRequests.increment();
+        sent.add(count);
+        httpClient.newRequest(url).method(HttpMethod.POST).content(new StringContentProvider(content))
+                .timeout(10, TimeUnit.SECONDS).send(result -> {
+                    if (result.isFailed()) {
+                        pushFailed.add(count);
+                    } else if (result.getResponse().getStatus() == HttpServletResponse.SC_OK) {
+                        pushed.add(count);
+                    } else if (result.getResponse().getStatus() == HttpServletResponse.SC_SERVICE_UNAVAILABLE) {
+                        pushRejected.add(count);
+                    } else {
+                        pushFailed.add(count);
+                    }
+                });
+    }
+
+    private static int now() {
+        return (int) TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+    }
+
+    /**
+     * Serves the api requests
+     */
+    private class ApiHandler extends AbstractHandler {
+
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request,
+                HttpServletResponse response) throws IOException {
+            baseRequest.setHandled(true);
+            requests.increment();
+            if (authorization != null && !authorization.equals(request.getHeader(HttpHeader.AUTHORIZATION.asString()))) {
+                response.setHeader(HttpHeader.WWW_AUTHENTICATE.asString(), "Basic realm=\"fibaro\"");
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
+            if (config.latency > 0) {
+                try {
+                    Thread.sleep(config.latency);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (config.errorRate > 0 && ThreadLocalRandom.current().nextInt(100) < config.errorRate) {
+                errors.increment();
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                return;
+            }
+
+            String path = target.startsWith(API_PATH) ? target.substring(API_PATH.length()) : "";
+            String[] segments = path.split("/");
+            response.setContentType("application/json");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            if (path.equals(SETTINGS_PATH) && HttpMethod.GET.is(request.getMethod())) {
+                response.getWriter().write(gson.toJson(settings()));
+            } else if (path.equals(DEVICES_PATH) && HttpMethod.GET.is(request.getMethod())) {
+                writeDevices(response);
+            } else if (segments.length >= 2 && segments[0].equals(DEVICES_PATH)) {
+                SimulatedDevice device = findDevice(segments[1]);
+                if (device == null) {
+                    response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                } else if (segments.length == 2 && HttpMethod.GET.is(request.getMethod())) {
+                    JsonWriter writer = new JsonWriter(response.getWriter());
+                    writeDevice(writer, device);
+                    writer.flush();
+                } else if (segments.length == 4 && segments[2].equals(ACTION_PATH)
+                        && HttpMethod.POST.is(request.getMethod())) {
+                    handleAction(device, segments[3], request, response);
+                } else {
+                    response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                }
+            } else {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            }
+        }
+
+        private SimulatedDevice findDevice(String id) {
+            try {
+                return devices.get(Integer.parseInt(id));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private void handleAction(SimulatedDevice device, String action, HttpServletRequest request,
+                HttpServletResponse response) throws IOException {
+            JsonArray args = null;
+            try {
+                JsonObject body = gson.fromJson(request.getReader(), JsonObject.class);
+                args = body != null && body.has("args") ? body.getAsJsonArray("args") : null;
+            } catch (JsonParseException | IllegalStateException e) {
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+
+            String value = device.properties.get("value");
+            switch (action) {
+                case "turnOn":
+                    value = device.type == DeviceType.DIMMER ? "99" : "1";
+                    break;
+                case "turnOff":
+                    value = "0";
+                    break;
+                case "setValue":
+                    if (args == null || args.size() == 0) {
+                        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                        return;
+                    }
+                    double number = args.get(0).getAsDouble();
+                    value = number == Math.rint(number) ? String.valueOf((long) number) : String.valueOf(number);
+                    break;
+                case "startLevelIncrease":
+                case "startLevelDecrease":
+                    int level = (int) Double.parseDouble(value);
+                    level += action.equals("startLevelIncrease") ? LEVEL_STEP : -LEVEL_STEP;
+                    value = String.valueOf(Math.max(0, Math.min(99, level)));
+                    break;
+                default:
+                    response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                    return;
+            }
+            actions.increment();
+            List<FibaroUpdate> updates = new ArrayList<FibaroUpdate>(1);
+            updates.add(change(device, "value", value));
+            push(updates);
+
+            JsonObject result = new JsonObject();
+            result.addProperty("result", 1);
+            JsonObject apiResponse = new JsonObject();
+            apiResponse.addProperty("id", (String) null);
+            apiResponse.addProperty("jsonrpc", "2.0");
+            apiResponse.add("result", result);
+            response.setStatus(HttpServletResponse.SC_ACCEPTED);
+            response.getWriter().write(gson.toJson(apiResponse));
+        }
+
+        /**
+         * Streams the device list, so large installations are not held in memory as one string
+         */
+        private void writeDevices(HttpServletResponse response) throws IOException {
+            JsonWriter writer = new JsonWriter(response.getWriter());
+            writer.beginArray();
+            for (int id = 1; id <= config.deviceCount; id++) {
+                writeDevice(writer, devices.get(id));
+            }
+            writer.endArray();
+            writer.flush();
+        }
+
+        private void writeDevice(JsonWriter writer, SimulatedDevice device) throws IOException {
+            writer.beginObject();
+            writer.name("id").value(device.id);
+            writer.name("name").value(device.name);
+            writer.name("roomID").value(1 + device.id / 10);
+            writer.name("type").value(device.type.type);
+            writer.name("baseType").value(device.type.baseType);
+            writer.name("enabled").value(true);
+            writer.name("visible").value(true);
+            writer.name("isPlugin").value(false);
+            writer.name("parentId").value(device.id);
+            writer.name("remoteGatewayId").value(0);
+            writer.name("interfaces").beginArray().value("zwave").endArray();
+            writer.name("properties").beginObject();
+            // Nested values the binding skips, as sent by the real controller
+            writer.name("parameters").beginArray();
+            writer.beginObject().name("id").value(1).name("size").value(1).name("value").value(0).endObject();
+            writer.endArray();
+            writer.name("zwaveCompany").value("Fibargroup");
+            for (Map.Entry<String, String> property : device.properties.entrySet()) {
+                writer.name(property.getKey()).value(property.getValue());
+            }
+            writer.endObject();
+            writer.name("actions").beginObject();
+            writer.name("turnOn").value(0);
+            writer.name("turnOff").value(0);
+            writer.name("setValue").value(1);
+            writer.endObject();
+            writer.name("created").value(device.created);
+            writer.name("modified").value(device.modified);
+            writer.name("sortOrder").value(device.id);
+            writer.endObject();
+        }
+
+        private JsonObject settings() {
+            JsonObject settings = new JsonObject();
+            settings.addProperty("serialNumber", "HC2-000000");
+            settings.addProperty("hcName", "Simulator");
+            settings.addProperty("mac", "00:00:00:00:00:00");
+            settings.addProperty("softVersion", "4.180");
+            settings.addProperty("beta", false);
+            settings.addProperty("zwaveVersion", "3.67");
+            settings.addProperty("timeFormat", 24);
+            settings.addProperty("zwaveRegion", "EU");
+            settings.addProperty("serverStatus", now());
+            settings.addProperty("defaultLanguage", "en");
+            settings.addProperty("sunsetHour", "18:00");
+            settings.addProperty("sunriseHour", "06:00");
+            settings.addProperty("hotelMode", false);
+            settings.addProperty("updateStableAvailable", false);
+            settings.addProperty("temperatureUnit", "C");
+            settings.addProperty("updateBetaAvailable", false);
+            settings.addProperty("batteryLowNotification", false);
+            settings.addProperty("smsManagement", false);
+            settings.addProperty("date", "12:00 | 1.1.2018");
+            settings.addProperty("online", true);
+            settings.addProperty("recoveryCondition", "");
+            return settings;
+        }
+    }
+
+    /**
+     * Runs a simulator until it is stopped, for load tests of a binding running in openHAB
+     *
+     * @param args port, number of devices, url of the binding's listener and updates pushed per second, all optional
+     */
+    public static void main(String[] args) throws Exception {
+        FibaroSimulatorConfiguration config = new FibaroSimulatorConfiguration();
+        config.port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        config.deviceCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        FibaroSimulator simulator = new FibaroSimulator(config);
+        simulator.start();
+        if (args.length > 2) {
+            simulator.startPushing(args[2], args.length > 3 ? Integer.parseInt(args[3]) : 100, 1);
+        }
+        System.out.println("Simulating " + config.deviceCount + " devices on " + simulator.getBaseUrl());
+        simulator.server.join();
+    }
+
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.simulator;
+
+/**
+ * Configuration class for the {@link FibaroSimulator}
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroSimulatorConfiguration {
+
+    // Port to listen on, 0 to pick a free port
+    public int port = 0;
+
+    // Number of simulated devices, with ids from 1
+    public int deviceCount = 100;
+
+    // Time in milliseconds every api request is delayed before it is answered
+    public int latency = 0;
+
+    // Share of the api requests answered with 500 Internal Server Error, in percent
+    public int errorRate = 0;
+
+    // Credentials the api requests must be sent with, no authentication if the username is empty
+    public String username = "admin";
+    public String password = "admin";
+
+}
@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.simulator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jetty.http.HttpMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.fibaro.config.FibaroGatewayConfiguration;
+import org.openhab.binding.fibaro.handler.FibaroServerHandler;
+import org.openhab.binding.fibaro.internal.FibaroDeviceLoader;
+import org.openhab.binding.fibaro.internal.FibaroMetrics;
+import org.openhab.binding.fibaro.internal.FibaroUpdateQueue;
+import org.openhab.binding.fibaro.internal.InMemoryCache;
+import org.openhab.binding.fibaro.internal.StripedExecutor;
+import org.openhab.binding.fibaro.internal.communicator.client.FibaroApiClient;
+import org.openhab.binding.fibaro.internal.communicator.client.FibaroHttpClient;
+import org.openhab.binding.fibaro.internal.communicator.server.FibaroServer;
+import org.openhab.binding.fibaro.internal.communicator.server.FibaroServerRouter;
+import org.openhab.binding.fibaro.internal.exception.FibaroException;
+import org.openhab.binding.fibaro.internal.model.FibaroDeviceState;
+import org.openhab.binding.fibaro.internal.model.json.FibaroApiResponse;
+import org.openhab.binding.fibaro.internal.model.json.FibaroArguments;
+import org.openhab.binding.fibaro.internal.model.json.FibaroDeviceReader;
+import org.openhab.binding.fibaro.internal.model.json.FibaroSettings;
+
+import com.google.gson.Gson;
+
+/**
+ * Runs the api client, the device loader and the update listener against a {@link FibaroSimulator} of a large
+ * installation
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroSimulatorLoadTest {
+
+    private static final int DEVICES = 1000;
+    private static final int REQUESTS_IN_FLIGHT = 4;
+    private static final int TIMEOUT = 10;
+    private static final int MAX_RESPONSE_SIZE = 16 * 1024 * 1024;
+
+    private FibaroSimulatorConfiguration config;
+    private FibaroSimulator simulator;
+    private FibaroHttpClient httpClient;
+    private FibaroApiClient apiClient;
+
+    @Before
+    public void setUp() throws Exception {
+        config = new FibaroSimulatorConfiguration();
+        config.deviceCount = DEVICES;
+        config.latency = 2;
+        simulator = new FibaroSimulator(config);
+        simulator.start();
+
+        httpClient = new FibaroHttpClient(REQUESTS_IN_FLIGHT, 1024);
+        httpClient.start();
+        apiClient = createApiClient(config.password);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.stop();
+        simulator.stop();
+    }
+
+    @Test
+    public void readsAllDevicesOfALargeInstallation() throws Exception {
+        List<FibaroDeviceState> devices = apiClient.stream(HttpMethod.GET, simulator.getBaseUrl() + "/api/devices", "",
+                FibaroDeviceReader::readDevices).get(TIMEOUT, TimeUnit.SECONDS);
+
+        assertThat(devices.size(), is(DEVICES));
+        for (int i = 0; i < DEVICES; i++) {
+            FibaroDeviceState device = devices.get(i);
+            assertThat(device.getId(), is(i + 1));
+            assertThat(device.getProperty("value"), is(simulator.getProperty(i + 1, "value")));
+            assertThat(device.getProperty("parameters"), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void loadsDevicesConcurrently() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            InMemoryCache<Integer, FibaroDeviceState> cache = new InMemoryCache<Integer, FibaroDeviceState>(60,
+                    DEVICES);
+            // Never switch to the bulk request, so every device is loaded on its own
+            FibaroDeviceLoader loader = new FibaroDeviceLoader(apiClient, simulator.getBaseUrl(), cache, scheduler, 0,
+                    Integer.MAX_VALUE);
+            List<CompletableFuture<FibaroDeviceState>> futures = new ArrayList<CompletableFuture<FibaroDeviceState>>();
+            for (int id = 1; id <= DEVICES; id += 5) {
+                futures.add(loader.load(id));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).get(TIMEOUT * 3,
+                    TimeUnit.SECONDS);
+
+            for (int i = 0; i < futures.size(); i++) {
+                assertThat(futures.get(i).get().getId(), is(1 + i * 5));
+                assertThat(cache.get(1 + i * 5), is(notNullValue()));
+            }
+            assertThat(simulator.getRequests(), is((long) futures.size()));
+            assertThat(apiClient.getRequestsInFlight(), is(0));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readsTheSettings() throws Exception {
+        FibaroSettings settings = apiClient
+                .call(HttpMethod.GET, simulator.getBaseUrl() + "/api/settings/info", "", FibaroSettings.class)
+                .get(TIMEOUT, TimeUnit.SECONDS);
+
+        assertThat(settings.toString(), containsString("serialNumber=HC2-000000"));
+        assertThat(settings.toString(), containsString("softVersion=4.180"));
+    }
+
+    @Test
+    public void actionsChangeTheDevice() throws Exception {
+        // Device 6 is a dimmer
+        FibaroArguments arguments = new FibaroArguments();
+        arguments.addArgs(42);
+        FibaroApiResponse response = apiClient.call(HttpMethod.POST,
+                simulator.getBaseUrl() + "/api/devices/6/action/setValue", new Gson().toJson(arguments),
+                FibaroApiResponse.class).get(TIMEOUT, TimeUnit.SECONDS);
+
+        assertThat(response.getJsonrpc(), is("2.0"));
+        assertThat(simulator.getProperty(6, "value"), is("42"));
+        assertThat(simulator.getActions(), is(1L));
+
+        FibaroDeviceState device = apiClient
+                .stream(HttpMethod.GET, simulator.getBaseUrl() + "/api/devices/6", "", FibaroDeviceReader::readDevice)
+                .get(TIMEOUT, TimeUnit.SECONDS);
+        assertThat(device.getProperty("value"), is("42"));
+    }
+
+    @Test
+    public void wrongCredentialsFail() throws Exception {
+        FibaroApiClient client = createApiClient("wrong");
+
+        assertFailsWith(client.call(HttpMethod.GET, simulator.getBaseUrl() + "/api/settings/info", "",
+                FibaroSettings.class), "401");
+    }
+
+    @Test
+    public void injectedErrorsFail() throws Exception {
+        config.errorRate = 100;
+
+        assertFailsWith(apiClient.call(HttpMethod.GET, simulator.getBaseUrl() + "/api/settings/info", "",
+                FibaroSettings.class), "500");
+        assertThat(simulator.getErrors(), is(1L));
+    }
+
+    @Test
+    public void listenerKeepsUpWithPushedUpdates() throws Exception {
+        StripedExecutor executor = new StripedExecutor("fibaro-load-test", 4);
+        LongAdder handled = new LongAdder();
+        FibaroUpdateQueue queue = new FibaroUpdateQueue(executor, update -> handled.increment(), update -> false,
+                10000, 100);
+        FibaroServerRouter router = new FibaroServerRouter();
+        router.register("hc2", new FibaroServerHandler(queue::offer, new FibaroMetrics()));
+        int port = freePort();
+        FibaroServer server = new FibaroServer(port, new FibaroGatewayConfiguration(), router);
+        try {
+            simulator.startPushing("http://localhost:" + port + FibaroServerRouter.PATH_PREFIX + "hc2", 2000, 10);
+            Thread.sleep(2000);
+            simulator.stopPushing();
+            waitFor(() -> simulator.getPushPending() == 0);
+            waitFor(() -> handled.sum() + queue.getMerged() == simulator.getPushed());
+
+            assertThat(simulator.getPushFailed(), is(0L));
+            assertThat(simulator.getPushRejected(), is(0L));
+            assertThat(queue.getDropped(), is(0L));
+            // Leave room for slow build machines, the rate is kept on any recent hardware
+            assertThat(simulator.getPushed() > 1000, is(true));
+        } finally {
+            server.stop();
+            executor.shutdown();
+        }
+    }
+
+    private FibaroApiClient createApiClient(String password) {
+        return new FibaroApiClient(httpClient.getHttpClient(), httpClient.getParserExecutor(), config.username,
+                password, REQUESTS_IN_FLIGHT, TIMEOUT, MAX_RESPONSE_SIZE, new FibaroMetrics());
+    }
+
+    private static void assertFailsWith(CompletableFuture<?> future, String status) throws Exception {
+        try {
+            future.get(TIMEOUT, TimeUnit.SECONDS);
+            fail("Call did not fail");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(FibaroException.class)));
+            assertThat(e.getCause().getMessage(), containsString(status));
+        }
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+        while (!condition.isMet() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -33,6 +33,33 @@ public class FibaroBindingConstants {
     public static final String THING_ID_DOOR_SENSOR = "doorsensor";
     public static final String THING_ID_MOTION_SENSOR = "motionsensor";
 
+    // List of gateway update modes
+    public static final String UPDATE_MODE_PUSH = "push";
+    public static final String UPDATE_MODE_POLL = "poll";
+
+    // List of gateway statistics properties
+    public static final String PROPERTY_UPDATE_QUEUE_DEPTH = "updateQueueDepth";
+    public static final String PROPERTY_UPDATE_QUEUE = "updateQueue";
+    public static final String PROPERTY_UPDATE_STRIPE_LATENCY = "updateStripeLatency";
+    public static final String PROPERTY_CACHE_HITS = "cacheHits";
+    public static final String PROPERTY_CACHE_MISSES = "cacheMisses";
+    public static final String PROPERTY_CACHE_EVICTIONS = "cacheEvictions";
+    public static final String PROPERTY_SUPPRESSED_UPDATES = "suppressedUpdates";
+    public static final String PROPERTY_SERVER_REQUEST_RATE = "serverRequestRate";
+    public static final String PROPERTY_SERVER_THREAD_POOL = "serverThreadPool";
+    public static final String PROPERTY_HTTP_CONNECTIONS = "httpConnections";
+    public static final String PROPERTY_RECONCILE_COST = "reconcileCost";
+    public static final String PROPERTY_RECONCILE_DRIFT = "reconcileDrift";
+    public static final String PROPERTY_CACHE_HIT_RATIO = "cacheHitRatio";
+
+    // List of gateway metric channels, published in a channel group per measured path
+    public static final String CHANNEL_METRIC_RATE = "rate";
+    public static final String CHANNEL_METRIC_ERROR_RATE = "errorRate";
+    public static final String CHANNEL_METRIC_P50 = "p50";
+    public static final String CHANNEL_METRIC_P99 = "p99";
+    public static final String CHANNEL_GROUP_CACHE = "cache";
+    public static final String CHANNEL_CACHE_HIT_RATIO = "hitRatio";
+
     // List of all Bridge Thing Type UIDs
     public static final ThingTypeUID THING_TYPE_BRIDGE_GATEWAY = new ThingTypeUID(BINDING_ID, BRIDGE_ID_GATEWAY);
 
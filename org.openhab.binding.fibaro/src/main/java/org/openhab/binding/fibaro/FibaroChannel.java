@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Enum class for the Fibaro channel id:s
+ *
+ * @author Johan Williams - Initial contribution
+ *
+ */
+public enum FibaroChannel {
+
+    ALARM("alarm", "value"),
+    TAMPER("tamper", "tamper"),
+    BATTERY("battery", "batteryLevel"),
+    BLINDS("blinds", "value"),
+    COLOR_LIGHT("color-light", "value"),
+    ELECTRIC_CURRENT("electric-current", "value"),
+    DEAD("dead", "dead"),
+    DIMMER("dimmer", "value"),
+    DOOR("door", "value"),
+    ENERGY("energy", "energy"),
+    HEAT("heat", "value"),
+    ILLUMINANCE("illuminance", "value"),
+    MOTION("motion", "value"),
+    POWER("power", "power"),
+    POWER_OUTLET("power-outlet", "value"),
+    SMOKE("smoke", "value"),
+    SWITCH("switch", "value"),
+    TEMPERATURE("temperature", "value"),
+    THERMOSTAT("thermostat", "value"),
+    VOLTAGE("voltage", "value"),
+    WINDOW("window", "value");
+
+    private static final Map<String, FibaroChannel> BY_ID = new HashMap<String, FibaroChannel>();
+    private static final Map<String, FibaroChannel> BY_LOWER_CASE_ID = new HashMap<String, FibaroChannel>();
+
+    static {
+        for (FibaroChannel channel : FibaroChannel.values()) {
+            BY_ID.put(channel.id, channel);
+            BY_LOWER_CASE_ID.put(channel.id.toLowerCase(Locale.ROOT), channel);
+        }
+    }
+
+    private final String id;
+    private final String property;
+
+    private FibaroChannel(String id, String property) {
+        this.id = id;
+        this.property = property;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Name of the device property holding the state of this channel
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Whether the channel reports events, that is binary states such as alarms, doors, motion and tamper, instead of
+     * readings
+     */
+    public boolean isEvent() {
+        switch (this) {
+            case ALARM:
+            case DEAD:
+            case DOOR:
+            case HEAT:
+            case MOTION:
+            case SMOKE:
+            case TAMPER:
+            case WINDOW:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static FibaroChannel fromId(String id) {
+        FibaroChannel channel = BY_ID.get(id);
+        if (channel == null && id != null) {
+            channel = BY_LOWER_CASE_ID.get(id.toLowerCase(Locale.ROOT));
+        }
+        if (channel != null) {
+            return channel;
+        }
+        throw new IllegalArgumentException("No channel with id " + id + " found");
+    }
+}
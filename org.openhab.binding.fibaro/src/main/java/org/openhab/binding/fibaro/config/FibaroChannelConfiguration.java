@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.config;
+
+/**
+ * Configuration class for the Fibaro metering channels, used to throttle how often their state is published.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+
+public class FibaroChannelConfiguration {
+
+    /**
+     * Minimum absolute change from the last published value for a new value to be published
+     */
+    public double deadband;
+
+    /**
+     * Minimum change in percent of the last published value for a new value to be published
+     */
+    public double deadbandPercent;
+
+    /**
+     * Minimum number of seconds between two published values
+     */
+    public int minInterval;
+
+}
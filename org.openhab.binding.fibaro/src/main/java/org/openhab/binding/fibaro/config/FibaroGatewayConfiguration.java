@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.config;
+
+/**
+ * Configuration class for the Fibaro controller, used to connect to the Fibaro controller.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+
+public class FibaroGatewayConfiguration {
+
+    public static final String IP_ADDRESS = "Ip address";
+    public static final String PORT = "Port";
+    public static final String USERNAME = "Username";
+    public static final String PASSWORD = "Password";
+
+    /**
+     * The IP address of the Fibaro controller
+     */
+    public String ipAddress;
+
+    /**
+     * The port Fibaro uses to communicate with
+     */
+    public int port;
+
+    /**
+     * The admin username of the Fibaro controller
+     */
+    public String username;
+
+    /**
+     * The admin password of the Fibaro controller
+     */
+    public String password;
+
+    /**
+     * The maximum number of requests sent to the Fibaro controller at the same time
+     */
+    public int maxConcurrentRequests;
+
+    /**
+     * The maximum size in kilobytes of a response from the Fibaro controller
+     */
+    public int maxResponseSize;
+
+    /**
+     * How device updates are received, either pushed by a lua scene (push) or by polling the Fibaro api (poll)
+     */
+    public String updateMode;
+
+    /**
+     * Delay in milliseconds between polls when the Fibaro controller reported no changes (poll update mode only)
+     */
+    public int pollInterval;
+
+    /**
+     * Interval in minutes after which an unchanged channel state is published again, 0 to never publish unchanged
+     * states
+     */
+    public int republishInterval;
+
+    /**
+     * Interval in seconds between two reconciliations of all devices, 0 to disable
+     */
+    public Integer reconcileInterval;
+
+    /**
+     * Interval in seconds between two reconciliations while updates keep arriving and no drift is found
+     */
+    public int reconcileMaxInterval;
+
+    /**
+     * Additional Fibaro device types to discover, as comma separated {@code <device type>=<thing type id>} pairs
+     */
+    public String deviceTypes;
+
+    /**
+     * The maximum number of updates waiting to be handled, further updates are rejected
+     */
+    public int updateQueueCapacity;
+
+    /**
+     * The local address the update server listens on, all addresses if not set
+     */
+    public String listenAddress;
+
+    /**
+     * The minimum number of threads in the update server thread pool
+     */
+    public int serverMinThreads;
+
+    /**
+     * The maximum number of threads in the update server thread pool
+     */
+    public int serverMaxThreads;
+
+    /**
+     * The number of acceptor threads of the update server, chosen by jetty if not set
+     */
+    public int serverAcceptors;
+
+    /**
+     * The number of selector threads of the update server, chosen by jetty if not set
+     */
+    public int serverSelectors;
+
+    /**
+     * The time in seconds an idle connection or thread of the update server is kept
+     */
+    public int serverIdleTimeout;
+
+    /**
+     * The number of connections waiting to be accepted by the update server
+     */
+    public int serverAcceptQueueSize;
+
+    /**
+     * Whether the update server keeps connections open between requests
+     */
+    public Boolean serverKeepAlive;
+
+}
@@ -0,0 +1,190 @@
+package org.openhab.binding.fibaro.discovery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.smarthome.config.discovery.AbstractDiscoveryService;
+import org.eclipse.smarthome.config.discovery.DiscoveryResult;
+import org.eclipse.smarthome.config.discovery.DiscoveryResultBuilder;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingTypeUID;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.openhab.binding.fibaro.FibaroBindingConstants;
+import org.openhab.binding.fibaro.handler.BridgeStatusListener;
+import org.openhab.binding.fibaro.handler.FibaroGatewayBridgeHandler;
+import org.openhab.binding.fibaro.internal.FibaroDeviceSync;
+import org.openhab.binding.fibaro.internal.model.FibaroDeviceState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link FibaroDeviceDiscoveryService} is used to discover devices that are connected to the Fibaro HC2.
+ *
+ * @author Martin Wennerberg
+ *
+ */
+public class FibaroDeviceDiscoveryService extends AbstractDiscoveryService implements BridgeStatusListener {
+
+    private Logger logger = LoggerFactory.getLogger(FibaroDeviceDiscoveryService.class);
+
+    private static final int TIMEOUT = 5;
+
+    FibaroGatewayBridgeHandler bridge;
+
+    // Devices reported as discovered, with a fingerprint of the discovery result
+    private final Map<Integer, Discovered> discovered = new HashMap<Integer, Discovered>();
+
+    private static class Discovered {
+        final ThingUID thingUID;
+        final int fingerprint;
+
+        Discovered(ThingUID thingUID, int fingerprint) {
+            this.thingUID = thingUID;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    public FibaroDeviceDiscoveryService(FibaroGatewayBridgeHandler bridge) {
+        super(FibaroBindingConstants.SUPPORTED_THING_TYPES_UIDS, TIMEOUT, true);
+        logger.debug("HarmonyDeviceDiscoveryService {}", bridge);
+        this.bridge = bridge;
+        this.bridge.addBridgeStatusListener(this);
+    }
+
+    @Override
+    protected void startScan() {
+        try {
+            discoverDevices();
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+        }
+    }
+
+    @Override
+    protected void startBackgroundDiscovery() {
+        discoverKnownDevices();
+    }
+
+    @Override
+    public void bridgeStatusChanged(ThingStatus status) {
+        if (status.equals(ThingStatus.ONLINE)) {
+            // The bridge has just fetched all devices, discover them from its states instead of fetching them again
+            discoverKnownDevices();
+        }
+    }
+
+    @Override
+    public void devicesChanged(FibaroDeviceSync.Changes changes) {
+        // Only the devices added, modified or removed since the last reconciliation need to be discovered again
+        discover(changes.getChanged(), false, false);
+        synchronized (this) {
+            for (Integer id : changes.getRemoved()) {
+                remove(id);
+            }
+        }
+    }
+
+    @Override
+    protected void deactivate() {
+        super.deactivate();
+        bridge.removeBridgeStatusListener(this);
+    }
+
+    /**
+     * Discovers devices connected to the Fibaro Gateway
+     * Only discovers devices that are enabled and visible. A scan reports every device again, also those already
+     * reported.
+     */
+    private void discoverDevices() throws Exception {
+        if (bridge.getThing().getStatus() != ThingStatus.ONLINE) {
+            logger.debug("Fibaro gateway not online, scanning postponed.");
+            return;
+        }
+        logger.debug("getting devices on {}", bridge.getThing().getUID().getId());
+
+        discover(bridge.getAllDevices(), true, true);
+    }
+
+    /**
+     * Discovers the devices from the last known states of the bridge, without calling the Fibaro API
+     */
+    private void discoverKnownDevices() {
+        if (bridge.getThing().getStatus() != ThingStatus.ONLINE) {
+            logger.debug("Fibaro gateway not online, discovery postponed.");
+            return;
+        }
+        discover(bridge.getKnownDevices(), true, false);
+    }
+
+    /**
+     * Discovers the devices in the list that are enabled and visible. A device is only reported again when the
+     * discovery result would differ from the one already reported, devices that were disabled, hidden or are no
+     * longer known are removed.
+     *
+     * @param devices Devices to discover
+     * @param all True if the list holds all devices of the gateway, previously discovered devices missing in it are
+     *            removed
+     * @param force True to report every device again, even if its discovery result has not changed
+     */
+    private synchronized void discover(List<FibaroDeviceState> devices, boolean all, boolean force) {
+        Set<Integer> seen = new HashSet<Integer>();
+        for (FibaroDeviceState device : devices) {
+            int id = device.getId();
+            seen.add(id);
+
+            if (!device.isEnabled() || !device.isVisible()) {
+                logger.trace("Fibaro device {} is disabled or hidden. Ignoring.", id);
+                remove(id);
+                continue;
+            }
+
+            ThingTypeUID type = bridge.getDeviceTypes().get(device.getType());
+            if (type == null) {
+                logger.trace("Unknown device type {} found. Ignoring.", device.getType());
+                remove(id);
+                continue;
+            }
+
+            ThingUID bridgeUID = bridge.getThing().getUID();
+            ThingUID thingUID = new ThingUID(type, bridgeUID, String.valueOf(id));
+            int fingerprint = Objects.hash(thingUID, device.getName());
+            Discovered previous = discovered.get(id);
+            if (!force && previous != null && previous.fingerprint == fingerprint) {
+                continue;
+            }
+            if (previous != null && !previous.thingUID.equals(thingUID)) {
+                thingRemoved(previous.thingUID);
+            }
+
+            logger.debug("Discovered Fibaro device {}", id);
+            Map<String, Object> properties = new HashMap<>(2);
+            properties.put("id", id);
+            DiscoveryResult discoveryResult = DiscoveryResultBuilder.create(thingUID).withProperties(properties)
+                    .withBridge(bridgeUID).withLabel(device.getName()).build();
+            thingDiscovered(discoveryResult);
+            discovered.put(id, new Discovered(thingUID, fingerprint));
+        }
+
+        if (all) {
+            for (Integer id : new ArrayList<Integer>(discovered.keySet())) {
+                if (!seen.contains(id)) {
+                    remove(id);
+                }
+            }
+        }
+    }
+
+    private void remove(int id) {
+        Discovered previous = discovered.remove(id);
+        if (previous != null) {
+            logger.debug("Fibaro device {} is no longer available", id);
+            thingRemoved(previous.thingUID);
+        }
+    }
+
+}
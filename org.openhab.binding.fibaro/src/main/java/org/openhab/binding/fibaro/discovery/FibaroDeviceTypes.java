@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.discovery;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.smarthome.core.thing.ThingTypeUID;
+import org.openhab.binding.fibaro.FibaroBindingConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maps Fibaro device types to the thing types they are discovered as. The built in mapping can be extended or
+ * overridden with a list of {@code <device type>=<thing type id>} pairs, for example
+ * {@code com.fibaro.FGMS002=motionsensor, com.fibaro.remoteSwitch=actor}.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroDeviceTypes {
+
+    private static final Map<String, ThingTypeUID> DEFAULT_TYPES = new HashMap<String, ThingTypeUID>();
+
+    static {
+        DEFAULT_TYPES.put("com.fibaro.doorSensor", FibaroBindingConstants.THING_TYPE_DOOR_SENSOR);
+        DEFAULT_TYPES.put("com.fibaro.FGMS001", FibaroBindingConstants.THING_TYPE_MOTION_SENSOR);
+
+        for (String type : new String[] { "com.fibaro.temperatureSensor", "com.fibaro.FGMS001v2",
+                "com.fibaro.lightSensor", "com.fibaro.seismometer", "com.fibaro.FGSS001", "com.fibaro.heatDetector",
+                "com.fibaro.thermostatDanfoss", "com.fibaro.multilevelSensor", "com.fibaro.accelerometer",
+                "com.fibaro.FGFS101" }) {
+            DEFAULT_TYPES.put(type, FibaroBindingConstants.THING_TYPE_SENSOR);
+        }
+
+        for (String type : new String[] { "com.fibaro.binarySwitch", "com.fibaro.FGD212", "com.fibaro.setPoint",
+                "com.fibaro.operatingMode", "com.fibaro.FGWP101", "com.fibaro.FGRGBW441M",
+                "com.fibaro.multilevelSwitch", "com.fibaro.doorLock" }) {
+            DEFAULT_TYPES.put(type, FibaroBindingConstants.THING_TYPE_ACTOR);
+        }
+    }
+
+    private Logger logger = LoggerFactory.getLogger(FibaroDeviceTypes.class);
+
+    private final Map<String, ThingTypeUID> types = new HashMap<String, ThingTypeUID>(DEFAULT_TYPES);
+
+    /**
+     * @param config Additional mappings as a comma separated list of {@code <device type>=<thing type id>} pairs, may
+     *            be null
+     */
+    public FibaroDeviceTypes(String config) {
+        for (String mapping : StringUtils.split(StringUtils.defaultString(config), ",")) {
+            String[] parts = StringUtils.split(mapping, "=");
+            if (parts.length != 2) {
+                logger.warn("Ignoring invalid device type mapping '{}'", mapping);
+                continue;
+            }
+            ThingTypeUID thingType = new ThingTypeUID(FibaroBindingConstants.BINDING_ID, parts[1].trim());
+            if (!FibaroBindingConstants.SUPPORTED_THING_TYPES_UIDS.contains(thingType)
+                    || FibaroBindingConstants.THING_TYPE_BRIDGE_GATEWAY.equals(thingType)) {
+                logger.warn("Ignoring device type mapping '{}', unknown thing type {}", mapping, parts[1].trim());
+                continue;
+            }
+            types.put(parts[0].trim(), thingType);
+        }
+    }
+
+    /**
+     * Gets the thing type a device type is discovered as
+     *
+     * @param deviceType Fibaro device type
+     * @return the thing type or null if devices of the type are not discovered
+     */
+    public ThingTypeUID get(String deviceType) {
+        return deviceType == null ? null : types.get(deviceType);
+    }
+
+}
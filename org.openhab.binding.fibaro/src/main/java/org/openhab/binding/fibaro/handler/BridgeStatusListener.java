@@ -0,0 +1,14 @@
+package org.openhab.binding.fibaro.handler;
+
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.openhab.binding.fibaro.internal.FibaroDeviceSync;
+
+public interface BridgeStatusListener {
+    public void bridgeStatusChanged(ThingStatus status);
+
+    /**
+     * Called when a reconciliation of the bridge found devices that were added, modified or removed
+     */
+    public default void devicesChanged(FibaroDeviceSync.Changes changes) {
+    }
+}
@@ -42,21 +42,13 @@ public class FibaroAbstractSensorThingHandler extends FibaroAbstractThingHandler
         if (id < 1) {
             throw new FibaroConfigurationException(FibaroThingConfiguration.ID + "' must be larget than 0");
         }
-
-        try {
-            bridge.getDeviceData(id);
-        } catch (Exception e) {
-            throw new FibaroConfigurationException(
-                    "Could not get device data from the Fibaro api for id " + id + ". Does this id exist?", e);
-        }
-
     }
 
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         try {
             if (command instanceof RefreshType) {
-                updateChannel(channelUID.getId(), bridge.getDeviceData(id));
+                refreshChannel(channelUID.getId(), bridge.getDeviceData(id));
             } else {
                 logger.debug("Can't handle command: " + command.toString());
             }
@@ -72,33 +64,31 @@ public class FibaroAbstractSensorThingHandler extends FibaroAbstractThingHandler
         String value = fibaroUpdate.getValue();
         switch (property) {
             case BATTERY:
-                updateChannel(FibaroChannel.BATTERY, stringToDecimal(value));
+                updateChannel(FibaroChannel.BATTERY, value);
+                break;
             case DEAD:
-                updateChannel(FibaroChannel.DEAD, stringToOnOff(value));
+                updateChannel(FibaroChannel.DEAD, value);
                 break;
             case ENERGY:
-                updateChannel(FibaroChannel.ENERGY, stringToDecimal(value));
+                updateChannel(FibaroChannel.ENERGY, value);
                 break;
             case POWER:
-                updateChannel(FibaroChannel.POWER, stringToDecimal(value));
+                updateChannel(FibaroChannel.POWER, value);
                 break;
             case VALUE:
-                updateChannel(FibaroChannel.DOOR, stringToOpenClosed(value));
-                updateChannel(FibaroChannel.ELECTRIC_CURRENT, stringToDecimal(value));
-                updateChannel(FibaroChannel.HEAT, stringToOnOff(value));
-                updateChannel(FibaroChannel.ILLUMINANCE, stringToDecimal(value));
-                updateChannel(FibaroChannel.MOTION, stringToOnOff(value));
-                updateChannel(FibaroChannel.SMOKE, stringToOnOff(value));
-                updateChannel(FibaroChannel.TEMPERATURE, stringToDecimal(value));
-                updateChannel(FibaroChannel.VOLTAGE, stringToDecimal(value));
-                updateChannel(FibaroChannel.WINDOW, stringToOpenClosed(value));
+                updateChannel(FibaroChannel.DOOR, value);
+                updateChannel(FibaroChannel.ELECTRIC_CURRENT, value);
+                updateChannel(FibaroChannel.HEAT, value);
+                updateChannel(FibaroChannel.ILLUMINANCE, value);
+                updateChannel(FibaroChannel.MOTION, value);
+                updateChannel(FibaroChannel.SMOKE, value);
+                updateChannel(FibaroChannel.TEMPERATURE, value);
+                updateChannel(FibaroChannel.VOLTAGE, value);
+                updateChannel(FibaroChannel.WINDOW, value);
                 break;
             default:
                 logger.debug("Update received for an unknown property: {}", fibaroUpdate.getProperty());
                 break;
         }
-
-        // Remove this device from the cache as it has been updated
-        bridge.removeFromCache(fibaroUpdate.getId());
     }
 }
@@ -0,0 +1,312 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.handler;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.fibaro.FibaroBindingConstants;
+import org.openhab.binding.fibaro.FibaroChannel;
+import org.openhab.binding.fibaro.config.FibaroChannelConfiguration;
+import org.openhab.binding.fibaro.config.FibaroThingConfiguration;
+import org.openhab.binding.fibaro.internal.FibaroStateConverter;
+import org.openhab.binding.fibaro.internal.FibaroStateFilter;
+import org.openhab.binding.fibaro.internal.exception.FibaroConfigurationException;
+import org.openhab.binding.fibaro.internal.model.FibaroDeviceState;
+import org.openhab.binding.fibaro.internal.model.json.FibaroUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+/**
+ * Abstract thing handler which implements all common functions the other thing handlers may need.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public abstract class FibaroAbstractThingHandler extends BaseThingHandler {
+
+    private Logger logger = LoggerFactory.getLogger(FibaroAbstractThingHandler.class);
+
+    protected int id;
+
+    protected Gson gson;
+
+    // Copy on write, replaced as a whole whenever a channel is linked or unlinked
+    protected volatile Set<FibaroChannel> linkedChannels = EnumSet.noneOf(FibaroChannel.class);
+
+    // Reference to the bridge which we need for communication
+    protected FibaroGatewayBridgeHandler bridge = null;
+
+    // Last published channel states, used to suppress publishing unchanged states
+    protected FibaroStateFilter stateFilter;
+
+    public FibaroAbstractThingHandler(@NonNull Thing thing) {
+        super(thing);
+    }
+
+    /**
+     * Init method that holds all common initialization stuff for Fibaro things
+     *
+     * @throws FibaroConfigurationException Thrown if a configuration error is encountered
+     */
+    protected void init() throws FibaroConfigurationException {
+        loadConfiguration();
+        gson = new Gson();
+        initLinkedChannels();
+
+        if (getBridge() == null) {
+            throw new FibaroConfigurationException("This thing needs to be associated with a bridge of type: "
+                    + FibaroBindingConstants.BRIDGE_ID_GATEWAY);
+        }
+        bridge = (FibaroGatewayBridgeHandler) getBridge().getHandler();
+        if (stateFilter != null) {
+            stateFilter.stop();
+        }
+        stateFilter = bridge.createStateFilter((channel, state) -> updateState(channel.getId(), state));
+        throttleChannels();
+    }
+
+    /**
+     * Brings the thing online from the device state held by the bridge. The state is looked up without blocking, if
+     * the bridge is not online yet the thing waits and is started by the bridge together with all other waiting things
+     * once it is.
+     */
+    protected void start() {
+        if (bridge.getThing().getStatus() == ThingStatus.ONLINE) {
+            bridge.startThing(this);
+        } else {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE, "Waiting for the bridge to go online");
+        }
+    }
+
+    /**
+     * Applies the initial state of all linked channels in one pass and brings the thing online
+     *
+     * @param device The device state, null if the bridge does not know the device
+     */
+    public void start(FibaroDeviceState device) {
+        if (device == null) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
+                    "Could not get device data from the Fibaro api for id " + id + ". Does this id exist?");
+            return;
+        }
+        if (stateFilter != null) {
+            stateFilter.reset();
+        }
+        refresh(device);
+        updateStatus(ThingStatus.ONLINE);
+    }
+
+    /**
+     * The Fibaro device id of this thing
+     */
+    public int getDeviceId() {
+        return id;
+    }
+
+    /**
+     * The channels of this thing linked to an item
+     */
+    public Set<FibaroChannel> getLinkedChannels() {
+        return linkedChannels;
+    }
+
+    /**
+     * Applies the deadband and minimum interval configured on the channels to the state filter
+     */
+    private void throttleChannels() {
+        for (Channel channel : getThing().getChannels()) {
+            FibaroChannelConfiguration config = channel.getConfiguration().as(FibaroChannelConfiguration.class);
+            if (config.deadband > 0 || config.deadbandPercent > 0 || config.minInterval > 0) {
+                FibaroChannel fibaroChannel = FibaroChannel.fromId(channel.getUID().getId());
+                stateFilter.throttle(fibaroChannel, config.deadband, config.deadbandPercent,
+                        TimeUnit.SECONDS.toMillis(config.minInterval));
+                logger.debug("Channel {} is throttled with deadband {}, {}% and minimum interval {}s",
+                        fibaroChannel, config.deadband, config.deadbandPercent, config.minInterval);
+            }
+        }
+    }
+
+    private synchronized void initLinkedChannels() {
+        Set<FibaroChannel> linked = EnumSet.noneOf(FibaroChannel.class);
+        for (Channel channel : getThing().getChannels()) {
+            if (isLinked(channel.getUID().getId())) {
+                linked.add(FibaroChannel.fromId(channel.getUID().getId()));
+            }
+        }
+        linkedChannels = linked;
+    }
+
+    private void loadConfiguration() {
+        FibaroThingConfiguration config = getConfigAs(FibaroThingConfiguration.class);
+        id = config.id;
+
+        logger.debug("config id = {}", id);
+    }
+
+    /**
+     * Calls the bridge so it can add this thing (with our id). This so the bridge later on can find the corresponding
+     * thing to update when it receives an update from the Fibaro controller for a device.
+     *
+     * @param id Our device id
+     */
+    protected void reportThingIdToBridge(int id) {
+        if (bridge != null) {
+            bridge.addThing(id, this);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (bridge != null) {
+            bridge.removeThing(id, this);
+        }
+        if (stateFilter != null) {
+            stateFilter.stop();
+        }
+        super.dispose();
+    }
+
+    /**
+     * Updates a thing channel from device data
+     *
+     * @param channelId Id of channel to update
+     * @param device The device carrying the update information
+     */
+    protected void updateChannel(String channelId, FibaroDeviceState device) {
+        if (device == null) {
+            logger.debug("Can't update channel {} as the device information is null", channelId);
+        } else {
+            FibaroChannel channel = FibaroChannel.fromId(channelId);
+            updateChannel(channel, device.getProperty(channel.getProperty()));
+        }
+    }
+
+    /**
+     * Publishes the state of a thing channel from device data in response to a REFRESH command. The state is always
+     * published, also when it equals the last published one.
+     *
+     * @param channelId Id of channel to refresh
+     * @param device The device carrying the state
+     */
+    protected void refreshChannel(String channelId, FibaroDeviceState device) {
+        if (device == null) {
+            logger.debug("Can't refresh channel {} as the device information is null", channelId);
+            return;
+        }
+        FibaroChannel channel = FibaroChannel.fromId(channelId);
+        String value = device.getProperty(channel.getProperty());
+        State state = value == null ? null : FibaroStateConverter.toState(channel, value);
+        if (state != null) {
+            updateState(channelId, state);
+        }
+    }
+
+    /**
+     * Makes sure the next state of a channel a command was sent to is published. After autoupdate, or when the command
+     * fails on the Fibaro controller, the item shows the commanded state until the device state is published again.
+     *
+     * @param channelUID Channel the command was sent to
+     */
+    protected void commandSent(ChannelUID channelUID) {
+        FibaroStateFilter filter = stateFilter;
+        if (filter != null) {
+            filter.invalidate(FibaroChannel.fromId(channelUID.getId()));
+        }
+    }
+
+    /**
+     * Re-applies the state of all linked channels from device data
+     *
+     * @param device The device carrying the state
+     */
+    public void refresh(FibaroDeviceState device) {
+        for (FibaroChannel channel : linkedChannels) {
+            updateChannel(channel, device.getProperty(channel.getProperty()));
+        }
+    }
+
+    /**
+     * Tries to update the specified channel with the specified state. Will however check that the state is not null,
+     * that the channel is linked (in use) and that the state differs from the last one published
+     *
+     * @param channel Channel to update
+     * @param state State to update the channel with
+     */
+    protected void updateChannel(FibaroChannel channel, State state) {
+        if (state != null && linkedChannels.contains(channel)) {
+            FibaroStateFilter filter = stateFilter;
+            if (filter == null || filter.shouldPublish(channel, state, System.currentTimeMillis())) {
+                updateState(channel.getId(), state);
+            }
+        }
+    }
+
+    /**
+     * Updates the specified channel with a value received from Fibaro. The value is only converted into the state type
+     * of the channel if the channel is linked, so updates for unlinked channels cost nothing.
+     *
+     * @param channel Channel to update
+     * @param value Value to update the channel with
+     */
+    protected void updateChannel(FibaroChannel channel, String value) {
+        if (value == null || !linkedChannels.contains(channel)) {
+            return;
+        }
+        updateChannel(channel, FibaroStateConverter.toState(channel, value));
+    }
+
+    @Override
+    public void channelLinked(ChannelUID channelUID) {
+        FibaroChannel channel = FibaroChannel.fromId(channelUID.getId());
+        synchronized (this) {
+            Set<FibaroChannel> linked = EnumSet.copyOf(linkedChannels);
+            linked.add(channel);
+            linkedChannels = linked;
+        }
+        // A newly linked item needs the current state even if it has not changed
+        if (stateFilter != null) {
+            stateFilter.reset(channel);
+        }
+        logger.debug("Channel {} was linked", channel.toString());
+        super.channelLinked(channelUID);
+    }
+
+    @Override
+    public void channelUnlinked(ChannelUID channelUID) {
+        FibaroChannel channel = FibaroChannel.fromId(channelUID.getId());
+        synchronized (this) {
+            Set<FibaroChannel> linked = EnumSet.copyOf(linkedChannels);
+            linked.remove(channel);
+            linkedChannels = linked;
+        }
+        // Stops republishing the channel
+        if (stateFilter != null) {
+            stateFilter.reset(channel);
+        }
+        logger.debug("Channel  {}  was unlinked", channel.toString());
+        super.channelUnlinked(channelUID);
+    }
+
+    /**
+     * Force implementing classes to add method for updates from Fibaro
+     */
+    protected abstract void update(FibaroUpdate fibaroUpdate);
+
+}
@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.fibaro.handler;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -22,6 +24,7 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.fibaro.FibaroChannel;
 import org.openhab.binding.fibaro.config.FibaroThingConfiguration;
+import org.openhab.binding.fibaro.internal.FibaroActionMailbox;
 import org.openhab.binding.fibaro.internal.exception.FibaroConfigurationException;
 import org.openhab.binding.fibaro.internal.model.FibaroAction;
 import org.openhab.binding.fibaro.internal.model.PropertyName;
@@ -41,6 +44,15 @@ public class FibaroActorThingHandler extends FibaroAbstractThingHandler {
 
     private Logger logger = LoggerFactory.getLogger(FibaroActorThingHandler.class);
 
+    private static final int LEVEL_STEP = 10;
+    private static final int LEVEL_UNKNOWN = -1;
+
+    // Only the latest of the actions sent while one is in flight is sent to the device, steps are all sent
+    private FibaroActionMailbox mailbox;
+
+    // Last known (or last requested) dimmer level, used to turn increase/decrease steps into a target level
+    private final AtomicInteger level = new AtomicInteger(LEVEL_UNKNOWN);
+
     public FibaroActorThingHandler(@NonNull Thing thing) {
         super(thing);
     }
@@ -49,7 +61,7 @@ public class FibaroActorThingHandler extends FibaroAbstractThingHandler {
     public void initialize() {
         try {
             init();
-            updateStatus(ThingStatus.ONLINE);
+            start();
         } catch (FibaroConfigurationException e) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, e.getMessage());
         }
@@ -65,13 +77,8 @@ public class FibaroActorThingHandler extends FibaroAbstractThingHandler {
             throw new FibaroConfigurationException(FibaroThingConfiguration.ID + "' must be larget than 0");
         }
 
-        try {
-            bridge.getDeviceData(id);
-        } catch (Exception e) {
-            throw new FibaroConfigurationException(
-                    "Could not get device data from the Fibaro api for id " + id + ". Does this id exist?", e);
-        }
-
+        mailbox = new FibaroActionMailbox(
+                (url, content) -> bridge.callFibaroApiAsync(HttpMethod.POST, url, content, FibaroApiResponse.class));
         reportThingIdToBridge(id);
     }
 
@@ -80,39 +87,45 @@ public class FibaroActorThingHandler extends FibaroAbstractThingHandler {
         try {
             String url = "http://" + bridge.getIpAddress() + "/api/devices/" + id + "/action/";
             if (command instanceof RefreshType) {
-                updateChannel(channelUID.getId(), bridge.getDeviceData(id));
-            } else if (command instanceof OnOffType) {
+                refreshChannel(channelUID.getId(), bridge.getDeviceData(id));
+                return;
+            }
+            commandSent(channelUID);
+            if (command instanceof OnOffType) {
                 url += command.equals(OnOffType.ON) ? FibaroAction.TURN_ON.getAction()
                         : FibaroAction.TURN_OFF.getAction();
-                FibaroApiResponse apiResponse = bridge.callFibaroApi(HttpMethod.POST, url, "", FibaroApiResponse.class);
-                logger.debug("{}", apiResponse.toString());
-                // TODO Check FibaroApiResponse for error codes
+                // A dimmer turned on goes back to a level only the device knows, it is reported in the next update
+                level.set(command.equals(OnOffType.ON) ? LEVEL_UNKNOWN : 0);
+                callAction(command, url, "");
             } else if (command instanceof IncreaseDecreaseType) {
-                url += command.equals(IncreaseDecreaseType.INCREASE) ? FibaroAction.LEVEL_INCREASE.getAction()
-                        : FibaroAction.LEVEL_DECREASE.getAction();
-                FibaroApiResponse apiResponse = bridge.callFibaroApi(HttpMethod.POST, url, "", FibaroApiResponse.class);
-                logger.debug("{}", apiResponse.toString());
-                // TODO: Check FibaroApiResponse for error codes
+                int step = command.equals(IncreaseDecreaseType.INCREASE) ? LEVEL_STEP : -LEVEL_STEP;
+                int target = level.updateAndGet(l -> l == LEVEL_UNKNOWN ? l : Math.max(0, Math.min(100, l + step)));
+                if (target == LEVEL_UNKNOWN) {
+                    url += step > 0 ? FibaroAction.LEVEL_INCREASE.getAction()
+                            : FibaroAction.LEVEL_DECREASE.getAction();
+                    logger.debug("Sending step {} to device {}", command, id);
+                    mailbox.submitStep(url, "");
+                } else {
+                    // Steps are added to the requested level and sent as one target level
+                    url += FibaroAction.SET_VALUE.getAction();
+                    FibaroArguments arguments = new FibaroArguments();
+                    arguments.addArgs(target);
+                    callAction(command, url, gson.toJson(arguments));
+                }
             } else if (command instanceof PercentType) {
                 url += FibaroAction.SET_VALUE.getAction();
                 int percentValue = ((PercentType) command).intValue();
+                level.set(percentValue);
                 FibaroArguments arguments = new FibaroArguments();
                 arguments.addArgs(percentValue);
-                String content = gson.toJson(arguments);
-                FibaroApiResponse apiResponse = bridge.callFibaroApi(HttpMethod.POST, url, content,
-                        FibaroApiResponse.class);
-                logger.debug("{}", apiResponse.toString());
-                // TODO: Check FibaroApiResponse for error codes
+                callAction(command, url, gson.toJson(arguments));
             } else if (command instanceof DecimalType) {
                 url += FibaroAction.SET_VALUE.getAction();
                 double decimalValue = ((DecimalType) command).doubleValue();
+                level.set(decimalValue >= 0 && decimalValue <= 100 ? (int) Math.round(decimalValue) : LEVEL_UNKNOWN);
                 FibaroArguments arguments = new FibaroArguments();
                 arguments.addArgs(decimalValue);
-                String content = gson.toJson(arguments);
-                FibaroApiResponse apiResponse = bridge.callFibaroApi(HttpMethod.POST, url, content,
-                        FibaroApiResponse.class);
-                logger.debug("{}", apiResponse.toString());
-                // TODO: Check FibaroApiResponse for error codes
+                callAction(command, url, gson.toJson(arguments));
             } else {
                 logger.debug("Can't handle command {}", command.toString());
             }
@@ -121,36 +134,58 @@ public class FibaroActorThingHandler extends FibaroAbstractThingHandler {
         }
     }
 
+    /**
+     * Sends an action to the Fibaro api without waiting for the response. If an action is already being sent to this
+     * device the action replaces any action waiting to be sent, so only the latest one is sent.
+     *
+     * @param command The command that triggered the action (for logging)
+     * @param url Url to the action
+     * @param content The action arguments (if any)
+     */
+    private void callAction(Command command, String url, String content) {
+        logger.debug("Sending command {} to device {}", command, id);
+        // TODO: Check FibaroApiResponse for error codes
+        mailbox.submit(url, content);
+    }
+
     @Override
     public void update(FibaroUpdate fibaroUpdate) {
         PropertyName property = PropertyName.fromName(fibaroUpdate.getProperty());
         String value = fibaroUpdate.getValue();
         switch (property) {
             case BATTERY:
-                updateChannel(FibaroChannel.BATTERY, stringToDecimal(value));
+                updateChannel(FibaroChannel.BATTERY, value);
+                break;
             case DEAD:
-                updateChannel(FibaroChannel.DEAD, stringToOnOff(value));
+                updateChannel(FibaroChannel.DEAD, value);
                 break;
             case ENERGY:
-                updateChannel(FibaroChannel.ENERGY, stringToDecimal(value));
+                updateChannel(FibaroChannel.ENERGY, value);
                 break;
             case POWER:
-                updateChannel(FibaroChannel.POWER, stringToDecimal(value));
+                updateChannel(FibaroChannel.POWER, value);
                 break;
             case VALUE:
-                updateChannel(FibaroChannel.ALARM, stringToOnOff(value));
-                updateChannel(FibaroChannel.DIMMER, stringToPercent(value));
-                updateChannel(FibaroChannel.POWER_OUTLET, stringToOnOff(value));
-                updateChannel(FibaroChannel.SWITCH, stringToOnOff(value));
-                updateChannel(FibaroChannel.THERMOSTAT, stringToDecimal(value));
+                updateLevel(value);
+                updateChannel(FibaroChannel.ALARM, value);
+                updateChannel(FibaroChannel.DIMMER, value);
+                updateChannel(FibaroChannel.POWER_OUTLET, value);
+                updateChannel(FibaroChannel.SWITCH, value);
+                updateChannel(FibaroChannel.THERMOSTAT, value);
                 break;
             default:
                 logger.debug("Update received for an unknown property: {}", fibaroUpdate.getProperty());
                 break;
         }
+    }
 
-        // Remove this device from the cache as it has been updated
-        bridge.removeFromCache(fibaroUpdate.getId());
+    private void updateLevel(String value) {
+        try {
+            int percent = Integer.parseInt(value);
+            level.set(percent >= 0 && percent <= 100 ? percent : LEVEL_UNKNOWN);
+        } catch (NumberFormatException nfe) {
+            level.set(LEVEL_UNKNOWN);
+        }
     }
 
 }
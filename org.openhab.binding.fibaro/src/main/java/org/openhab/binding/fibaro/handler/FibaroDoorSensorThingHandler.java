@@ -24,7 +24,7 @@ public class FibaroDoorSensorThingHandler extends FibaroAbstractSensorThingHandl
 
         try {
             init();
-            updateStatus(ThingStatus.ONLINE);
+            start();
         } catch (FibaroConfigurationException e) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, e.getMessage());
         }
@@ -37,7 +37,8 @@ public class FibaroDoorSensorThingHandler extends FibaroAbstractSensorThingHandl
         // TODO Figure out what Thing type and add default channels here maybe?
         Thing thing = this.thing;
 
-        if (!getBridge().getThings().contains(thing)) {
+        // The bridge lists the things whose bridge uid is its own, compare the uid instead of searching its things
+        if (!bridge.getThing().getUID().equals(thing.getBridgeUID())) {
             List<Channel> channels = thing.getChannels();
             logger.debug(channels.toString());
         }
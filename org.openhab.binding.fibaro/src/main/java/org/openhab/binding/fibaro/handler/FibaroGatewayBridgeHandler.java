@@ -0,0 +1,900 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.handler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.fibaro.FibaroBindingConstants;
+import org.openhab.binding.fibaro.FibaroChannel;
+import org.openhab.binding.fibaro.config.FibaroGatewayConfiguration;
+import org.openhab.binding.fibaro.discovery.FibaroDeviceTypes;
+import org.openhab.binding.fibaro.internal.FibaroDeviceLoader;
+import org.openhab.binding.fibaro.internal.FibaroDeviceSync;
+import org.openhab.binding.fibaro.internal.FibaroHandlerFactory;
+import org.openhab.binding.fibaro.internal.FibaroLatencyHistogram;
+import org.openhab.binding.fibaro.internal.FibaroMetric;
+import org.openhab.binding.fibaro.internal.FibaroMetrics;
+import org.openhab.binding.fibaro.internal.FibaroStateFilter;
+import org.openhab.binding.fibaro.internal.FibaroUpdateQueue;
+import org.openhab.binding.fibaro.internal.InMemoryCache;
+import org.openhab.binding.fibaro.internal.StripedExecutor;
+import org.openhab.binding.fibaro.internal.communicator.client.FibaroApiClient;
+import org.openhab.binding.fibaro.internal.communicator.client.FibaroHttpClient;
+import org.openhab.binding.fibaro.internal.communicator.client.FibaroRefreshStatesPoller;
+import org.openhab.binding.fibaro.internal.communicator.server.FibaroServer;
+import org.openhab.binding.fibaro.internal.exception.FibaroConfigurationException;
+import org.openhab.binding.fibaro.internal.model.FibaroDeviceState;
+import org.openhab.binding.fibaro.internal.model.PropertyName;
+import org.openhab.binding.fibaro.internal.model.json.FibaroDeviceReader;
+import org.openhab.binding.fibaro.internal.model.json.FibaroUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link FibaroGatewayThingHandler} is responsible for the communication between this binding and the Fibaro
+ * gateway.
+ *
+ * @author Johan Williams - Initial Contribution
+ */
+public class FibaroGatewayBridgeHandler extends BaseBridgeHandler {
+
+    private Logger logger = LoggerFactory.getLogger(FibaroGatewayBridgeHandler.class);
+
+    protected String ipAddress;
+    protected String username;
+    protected String password;
+    protected int port;
+    protected int maxConcurrentRequests;
+    protected int maxResponseSize;
+    protected String updateMode;
+    protected int pollInterval;
+    protected int republishInterval;
+    protected int reconcileInterval;
+    protected int reconcileMaxInterval;
+    protected int updateQueueCapacity;
+    protected FibaroGatewayConfiguration config;
+
+    private InMemoryCache<Integer, FibaroDeviceState> cache;
+    private final int CACHE_EXPIRY = 10; // 10s
+    private final int CACHE_SIZE = 500;
+    private final int CACHE_CLEANUP_INTERVAL = 1; // 1s
+    private final int LOADER_BATCH_WINDOW = 50; // 50ms
+    private final int LOADER_BULK_THRESHOLD = 5;
+
+    private static final int TIMEOUT = 5;
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+    private static final int DEFAULT_MAX_RESPONSE_SIZE = 16384; // 16MB
+    private static final int DEFAULT_POLL_INTERVAL = 1000; // 1s
+    private static final int DEFAULT_RECONCILE_INTERVAL = 60; // 60s
+    private static final int DEFAULT_RECONCILE_MAX_INTERVAL = 900; // 15min
+    private static final int DEFAULT_UPDATE_QUEUE_CAPACITY = 1000;
+    private static final int UPDATE_QUEUE_EVENT_RESERVE = 10; // 10% of the capacity
+    private static final int STATISTICS_INTERVAL = 60; // 60s
+    private static final int RESYNC_DELAY = 5; // 5s
+
+    private List<BridgeStatusListener> listeners = new CopyOnWriteArrayList<BridgeStatusListener>();
+
+    private FibaroApiClient apiClient;
+    private FibaroDeviceLoader deviceLoader;
+    private FibaroServer server;
+    private FibaroRefreshStatesPoller poller;
+    private volatile StripedExecutor updateExecutor;
+    private volatile FibaroUpdateQueue updateQueue;
+    private ScheduledFuture<?> statisticsJob;
+    private ScheduledFuture<?> reconcileJob;
+    private boolean reconciling;
+    private boolean reconcileInFlight;
+    private boolean resyncPending;
+    private volatile long lastUpdateReceived;
+    private volatile long currentReconcileInterval;
+    private volatile long lastReconcileTime;
+    private final LongAdder reconcileRuns = new LongAdder();
+    private final LongAdder reconcileTime = new LongAdder();
+    private final LongAdder reconcileDrift = new LongAdder();
+    private final FibaroDeviceSync deviceSync = new FibaroDeviceSync();
+    private volatile FibaroDeviceTypes deviceTypes = new FibaroDeviceTypes(null);
+    private final LongAdder suppressedUpdates = new LongAdder();
+    private final FibaroMetrics metrics = new FibaroMetrics();
+    private int lastServerRequests;
+    private long lastCacheHits;
+    private long lastCacheMisses;
+
+    private final FibaroThingRegistry things;
+
+    private FibaroHandlerFactory factory;
+
+    public FibaroGatewayBridgeHandler(@NonNull Bridge bridge, FibaroHandlerFactory factory) {
+        super(bridge);
+        things = new FibaroThingRegistry();
+        // Replaced when the bridge is initialized, updates can be handled before that without a running bridge
+        cache = new InMemoryCache<Integer, FibaroDeviceState>(CACHE_EXPIRY, CACHE_SIZE);
+
+        this.factory = factory;
+    }
+
+    @Override
+    public void initialize() {
+        logger.debug("Initializing the Fibaro Bridge handler.");
+        loadConfiguration();
+        deviceTypes = new FibaroDeviceTypes(config.deviceTypes);
+
+        if (cache != null) {
+            cache.stop();
+        }
+        cache = new InMemoryCache<Integer, FibaroDeviceState>(CACHE_EXPIRY, CACHE_SIZE);
+        lastCacheHits = 0;
+        lastCacheMisses = 0;
+        cache.start(scheduler, CACHE_CLEANUP_INTERVAL);
+        FibaroHttpClient httpClient = factory.getHttpClient();
+        apiClient = new FibaroApiClient(httpClient.getHttpClient(), httpClient.getParserExecutor(), username, password,
+                maxConcurrentRequests, TIMEOUT, maxResponseSize * 1024, metrics);
+        deviceLoader = new FibaroDeviceLoader(apiClient, "http://" + getIpAddress(), cache, scheduler,
+                LOADER_BATCH_WINDOW, LOADER_BULK_THRESHOLD);
+        if (updateExecutor == null) {
+            updateExecutor = new StripedExecutor("fibaro-update-" + getThing().getUID().getId(),
+                    Runtime.getRuntime().availableProcessors());
+        }
+        updateQueue = new FibaroUpdateQueue(updateExecutor, this::handleSafely, this::isEvent, updateQueueCapacity,
+                updateQueueCapacity * UPDATE_QUEUE_EVENT_RESERVE / 100);
+
+        boolean validConfig = true;
+        String errorMsg = null;
+
+        if (StringUtils.trimToNull(ipAddress) == null) {
+            errorMsg = "Parameter '" + FibaroGatewayConfiguration.IP_ADDRESS + "' is mandatory and must be configured";
+            validConfig = false;
+        }
+        if (isPushMode() && (port <= 1024 || port > 65535)) {
+            errorMsg = "Parameter '" + FibaroGatewayConfiguration.PORT + "' must be between 1025 and 65535";
+            validConfig = false;
+        }
+        if (StringUtils.trimToNull(username) == null) {
+            errorMsg = "Parameter '" + FibaroGatewayConfiguration.USERNAME + "' is mandatory and must be configured";
+            validConfig = false;
+        }
+        if (StringUtils.trimToNull(password) == null) {
+            errorMsg = "Parameter '" + FibaroGatewayConfiguration.PASSWORD + "' is mandatory and must be configured";
+            validConfig = false;
+        }
+
+        // Populate the cache with all devices to avoid spamming the api when all things refresh
+        String url = "http://" + getIpAddress() + "/api/devices";
+        deviceSync.reset();
+        lastUpdateReceived = 0;
+        try {
+            long fetched = System.currentTimeMillis();
+            List<FibaroDeviceState> devices = getAllDevices();
+            deviceSync.sync(devices, fetched);
+            sizeCache(devices.size());
+            for (FibaroDeviceState device : devices) {
+                addToCache(device.getId(), device);
+            }
+        } catch (Exception e1) {
+            errorMsg = "Failed to connect to the Fibaro gateway through api call '" + url
+                    + "'. Please check that username, password and ip is correctly configured.";
+            validConfig = false;
+        }
+
+        if (isPushMode()) {
+            // Listen for device updates, the server is shared with other bridges configured with the same port
+            try {
+                lastServerRequests = 0;
+                server = factory.registerUpdateHandler(port, config, getThing().getUID().getId(),
+                        new FibaroServerHandler(this));
+            } catch (FibaroConfigurationException e) {
+                errorMsg = e.getMessage();
+                validConfig = false;
+            } catch (Exception e) {
+                errorMsg = "Failed to start the server communicating with Fibaro on port " + port;
+                validConfig = false;
+            }
+        } else if (validConfig) {
+            // Follow the device changes through the refreshStates api instead
+            poller = new FibaroRefreshStatesPoller(apiClient, "http://" + getIpAddress(), scheduler,
+                    this::dispatchFibaroUpdate, this::requestReconciliation, pollInterval);
+            poller.start();
+        }
+
+        if (validConfig) {
+            startReconciliation();
+            startStatistics();
+            updateStatus(ThingStatus.ONLINE);
+            startThings();
+        } else {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, errorMsg);
+        }
+    }
+
+    @Override
+    protected void updateStatus(ThingStatus status, ThingStatusDetail detail, String comment) {
+        super.updateStatus(status, detail, comment);
+        logger.debug("Updating listeners with status {}", status);
+        for (BridgeStatusListener listener : listeners) {
+            listener.bridgeStatusChanged(status);
+        }
+    }
+
+    private void loadConfiguration() {
+        config = getConfigAs(FibaroGatewayConfiguration.class);
+        ipAddress = config.ipAddress;
+        username = config.username;
+        password = config.password;
+        port = config.port;
+        updateMode = FibaroBindingConstants.UPDATE_MODE_POLL.equalsIgnoreCase(config.updateMode)
+                ? FibaroBindingConstants.UPDATE_MODE_POLL
+                : FibaroBindingConstants.UPDATE_MODE_PUSH;
+        pollInterval = config.pollInterval > 0 ? config.pollInterval : DEFAULT_POLL_INTERVAL;
+        republishInterval = Math.max(config.republishInterval, 0);
+        reconcileInterval = config.reconcileInterval != null ? Math.max(config.reconcileInterval, 0)
+                : DEFAULT_RECONCILE_INTERVAL;
+        reconcileMaxInterval = Math.max(
+                config.reconcileMaxInterval > 0 ? config.reconcileMaxInterval : DEFAULT_RECONCILE_MAX_INTERVAL,
+                reconcileInterval);
+        maxConcurrentRequests = config.maxConcurrentRequests > 0 ? config.maxConcurrentRequests
+                : DEFAULT_MAX_CONCURRENT_REQUESTS;
+        maxResponseSize = config.maxResponseSize > 0 ? config.maxResponseSize : DEFAULT_MAX_RESPONSE_SIZE;
+        updateQueueCapacity = config.updateQueueCapacity > 0 ? config.updateQueueCapacity
+                : DEFAULT_UPDATE_QUEUE_CAPACITY;
+
+        logger.debug("config ipAddress = {}", ipAddress);
+        logger.debug("config id = {}", port);
+        logger.debug("config id = {}", username);
+        logger.debug("config id = (omitted from logging)");
+        logger.debug("config maxConcurrentRequests = {}", maxConcurrentRequests);
+        logger.debug("config maxResponseSize = {}", maxResponseSize);
+        logger.debug("config updateMode = {}", updateMode);
+        logger.debug("config pollInterval = {}", pollInterval);
+        logger.debug("config republishInterval = {}", republishInterval);
+        logger.debug("config reconcileInterval = {}", reconcileInterval);
+        logger.debug("config reconcileMaxInterval = {}", reconcileMaxInterval);
+        logger.debug("config deviceTypes = {}", config.deviceTypes);
+        logger.debug("config updateQueueCapacity = {}", updateQueueCapacity);
+    }
+
+    private boolean isPushMode() {
+        return FibaroBindingConstants.UPDATE_MODE_PUSH.equals(updateMode);
+    }
+
+    /**
+     * Hands an update over to be handled asynchronously. Updates for the same device are handled in the order they
+     * were dispatched, updates for different devices may be handled in parallel. A pending update of the same device
+     * property is replaced, see {@link FibaroUpdateQueue}.
+     *
+     * @param fibaroUpdate The update to handle
+     * @return false if the update was dropped because too many updates are waiting to be handled
+     */
+    public boolean dispatchFibaroUpdate(FibaroUpdate fibaroUpdate) {
+        lastUpdateReceived = System.currentTimeMillis();
+        fibaroUpdate.setReceived(System.nanoTime());
+        return handleAsync(fibaroUpdate);
+    }
+
+    private boolean handleAsync(FibaroUpdate fibaroUpdate) {
+        FibaroUpdateQueue queue = updateQueue;
+        if (queue == null) {
+            logger.debug("Bridge is disposed, dropping update {}", fibaroUpdate);
+            return false;
+        }
+        if (!queue.offer(fibaroUpdate)) {
+            logger.debug("Update queue is full or stopped, dropping update {}", fibaroUpdate);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * An update is an event when its property is bound to a linked event channel of its device, such as a door or
+     * motion channel. All other updates, also of properties the binding does not know, are meter readings.
+     */
+    private boolean isEvent(FibaroUpdate fibaroUpdate) {
+        String property = fibaroUpdate.getProperty();
+        if (property == null) {
+            return false;
+        }
+        for (FibaroAbstractThingHandler handler : things.get(fibaroUpdate.getId())) {
+            for (FibaroChannel channel : handler.getLinkedChannels()) {
+                if (channel.isEvent() && channel.getProperty().equals(property)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void handleSafely(FibaroUpdate fibaroUpdate) {
+        try {
+            handleFibaroUpdate(fibaroUpdate);
+        } catch (RuntimeException e) {
+            logger.debug("Failed to handle update {} : {}", fibaroUpdate, e.getMessage());
+        }
+    }
+
+    public void handleFibaroUpdate(FibaroUpdate fibaroUpdate) {
+        logger.debug("{}", fibaroUpdate);
+        if (fibaroUpdate.getProperty() == null) {
+            logger.debug("Ignoring update without a property for device {}", fibaroUpdate.getId());
+            return;
+        }
+        // Keep the cached and the last known device state current instead of evicting them, without counting the
+        // lookup in the cache statistics
+        FibaroDeviceState state = cache.peek(fibaroUpdate.getId());
+        if (state != null) {
+            state.updateProperty(fibaroUpdate.getProperty(), fibaroUpdate.getValue());
+        }
+        deviceSync.update(fibaroUpdate, System.currentTimeMillis());
+        if (PropertyName.find(fibaroUpdate.getProperty()) == null) {
+            // No channel is bound to this property yet
+            return;
+        }
+
+        FibaroAbstractThingHandler[] fibaroThingHandlers = things.get(fibaroUpdate.getId());
+        if (fibaroThingHandlers.length == 0) {
+            logger.debug("No thing with id {} is configured", fibaroUpdate.getId());
+            return;
+        }
+        for (FibaroAbstractThingHandler fibaroThingHandler : fibaroThingHandlers) {
+            fibaroThingHandler.update(fibaroUpdate);
+        }
+        if (fibaroUpdate.getReceived() != 0) {
+            // Time from receiving the update until its state has been handed to the things
+            metrics.record(FibaroMetric.UPDATE_TO_STATE, System.nanoTime() - fibaroUpdate.getReceived(), false);
+        }
+    }
+
+    @Override
+    public void handleCommand(ChannelUID channelUID, Command command) {
+        // TODO Auto-generated method stub
+    }
+
+    public void addThing(int id, FibaroAbstractThingHandler fibaroThingHandler) {
+        things.add(id, fibaroThingHandler);
+    }
+
+    public void removeThing(int id, FibaroAbstractThingHandler fibaroThingHandler) {
+        things.remove(id, fibaroThingHandler);
+    }
+
+    /**
+     * Gets all thing handlers configured for a Fibaro device id
+     *
+     * @param id Fibaro device id
+     * @return the handlers, an empty array if there are none
+     */
+    public FibaroAbstractThingHandler[] getThings(int id) {
+        return things.get(id);
+    }
+
+    /**
+     * Gets the thing handler registered for a thing
+     *
+     * @param uid Thing uid
+     * @return the handler or null if the thing has not been registered with this bridge
+     */
+    public FibaroAbstractThingHandler getThing(ThingUID uid) {
+        return things.get(uid);
+    }
+
+    @Override
+    public void dispose() {
+        logger.debug("Disposing the Fibaro Bridge handler.");
+        if (statisticsJob != null) {
+            statisticsJob.cancel(false);
+            statisticsJob = null;
+        }
+        stopReconciliation();
+        if (poller != null) {
+            poller.stop();
+            poller = null;
+        }
+        if (deviceLoader != null) {
+            deviceLoader.stop();
+        }
+        if (cache != null) {
+            logger.debug("Device cache hits: {}, misses: {}, evictions: {}", cache.getHits(), cache.getMisses(),
+                    cache.getEvictions());
+            cache.stop();
+        }
+        if (server != null) {
+            factory.unregisterUpdateHandler(port, getThing().getUID().getId());
+            server = null;
+        }
+        updateQueue = null;
+        if (updateExecutor != null) {
+            updateExecutor.shutdown();
+            updateExecutor = null;
+        }
+    }
+
+    /**
+     * Starts the periodic reconciliation, if enabled. Resyncs can be requested from then on either way.
+     */
+    private synchronized void startReconciliation() {
+        stopReconciliation();
+        reconciling = true;
+        if (reconcileInterval > 0) {
+            currentReconcileInterval = reconcileInterval;
+            scheduleReconciliation(reconcileInterval);
+        }
+    }
+
+    private synchronized void stopReconciliation() {
+        reconciling = false;
+        reconcileInFlight = false;
+        resyncPending = false;
+        if (reconcileJob != null) {
+            reconcileJob.cancel(false);
+            reconcileJob = null;
+        }
+    }
+
+    /**
+     * Schedules the next reconciliation, replacing the one scheduled so far so only one is ever pending
+     */
+    private synchronized void scheduleReconciliation(long delay) {
+        if (reconcileJob != null) {
+            reconcileJob.cancel(false);
+        }
+        reconcileJob = scheduler.schedule(this::reconcile, delay, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Reconciles all devices shortly, for example because updates were dropped. A reconciliation already due within
+     * the delay is not brought forward. While a reconciliation is fetching the devices the resync is only recorded and
+     * scheduled once the fetch has finished, as the fetch may have missed the dropped updates.
+     */
+    public synchronized void requestReconciliation() {
+        if (!reconciling) {
+            return;
+        }
+        if (reconcileInFlight) {
+            resyncPending = true;
+            return;
+        }
+        if (reconcileJob != null && !reconcileJob.isDone()
+                && reconcileJob.getDelay(TimeUnit.SECONDS) <= RESYNC_DELAY) {
+            return;
+        }
+        scheduleReconciliation(RESYNC_DELAY);
+    }
+
+    /**
+     * Fetches all devices and acts only on the devices added, modified or removed since the last reconciliation. The
+     * state of modified devices is re-applied to their things and the discovery is told about the changes. Property
+     * values that drifted from the received updates are handled as updates.
+     * <p>
+     * While updates keep arriving and no drift is found the reconciliation only runs every
+     * {@code reconcileMaxInterval} seconds, otherwise every {@code reconcileInterval} seconds.
+     */
+    private void reconcile() {
+        synchronized (this) {
+            if (reconcileInFlight) {
+                resyncPending = true;
+                return;
+            }
+            reconcileInFlight = true;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            getAllDevicesAsync().whenComplete((devices, e) -> {
+                long drifted = 0;
+                boolean failed = true;
+                try {
+                    if (devices == null) {
+                        logger.debug("Failed to reconcile the Fibaro devices: {}", e.getMessage());
+                    } else {
+                        FibaroDeviceSync.Changes changes = deviceSync.sync(devices, started);
+                        sizeCache(devices.size());
+                        drifted = changes.getDrift().size();
+                        logger.debug(
+                                "Reconciled {} devices, {} added or modified, {} removed and {} drifted properties",
+                                devices.size(), changes.getChanged().size(), changes.getRemoved().size(), drifted);
+                        applyChanges(changes);
+                        failed = false;
+                    }
+                } catch (RuntimeException re) {
+                    logger.warn("Failed to apply the reconciled Fibaro devices: {}", re.getMessage(), re);
+                } finally {
+                    // Always schedule the next run, an exception must not end the reconciliation for good
+                    reconciled(started, drifted, failed);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Failed to reconcile the Fibaro devices: {}", e.getMessage(), e);
+            reconciled(started, 0, true);
+        }
+    }
+
+    /**
+     * Records a finished reconciliation and schedules the next one. Does nothing once the reconciliation has been
+     * stopped, for example when a fetch finishes after the bridge was disposed.
+     */
+    private void reconciled(long started, long drifted, boolean failed) {
+        synchronized (this) {
+            if (!reconciling) {
+                return;
+            }
+        }
+        long now = System.currentTimeMillis();
+        reconcileRuns.increment();
+        reconcileTime.add(now - started);
+        lastReconcileTime = now - started;
+        reconcileDrift.add(drifted);
+
+        boolean live = now - lastUpdateReceived < TimeUnit.SECONDS.toMillis(reconcileMaxInterval);
+        currentReconcileInterval = live && drifted == 0 && !failed ? reconcileMaxInterval : reconcileInterval;
+        synchronized (this) {
+            if (!reconciling) {
+                return;
+            }
+            reconcileInFlight = false;
+            if (resyncPending) {
+                resyncPending = false;
+                scheduleReconciliation(RESYNC_DELAY);
+            } else if (reconcileInterval > 0) {
+                scheduleReconciliation(currentReconcileInterval);
+            }
+        }
+    }
+
+    /**
+     * Makes room for all devices in the cache, so large installations do not keep evicting and reloading devices
+     */
+    private void sizeCache(int deviceCount) {
+        cache.setMaxItems(Math.max(CACHE_SIZE, deviceCount + deviceCount / 4));
+    }
+
+    private void applyChanges(FibaroDeviceSync.Changes changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (FibaroDeviceState device : changes.getChanged()) {
+            addToCache(device.getId(), device);
+            refreshThings(device);
+        }
+        for (Integer id : changes.getRemoved()) {
+            removeFromCache(id);
+        }
+        for (FibaroUpdate fibaroUpdate : changes.getDrift()) {
+            handleAsync(fibaroUpdate);
+        }
+        for (BridgeStatusListener listener : listeners) {
+            listener.devicesChanged(changes);
+        }
+    }
+
+    /**
+     * Starts all things waiting for the bridge from the device states fetched when the bridge was initialized
+     */
+    private void startThings() {
+        Collection<FibaroAbstractThingHandler> handlers = things.getAll();
+        logger.debug("Starting {} things", handlers.size());
+        for (FibaroAbstractThingHandler handler : handlers) {
+            startThing(handler);
+        }
+    }
+
+    /**
+     * Starts a thing from the state of its device without blocking. Devices missing in the states fetched when the
+     * bridge was initialized are loaded from the Fibaro api.
+     *
+     * @param handler Handler of the thing to start
+     */
+    public void startThing(FibaroAbstractThingHandler handler) {
+        int id = handler.getDeviceId();
+        FibaroDeviceState device = deviceSync.get(id);
+        if (device != null) {
+            runOnStripe(id, () -> handler.start(device));
+        } else {
+            getDeviceDataAsync(id).whenComplete((loaded, e) -> runOnStripe(id, () -> handler.start(loaded)));
+        }
+    }
+
+    private void runOnStripe(int id, Runnable task) {
+        StripedExecutor executor = updateExecutor;
+        if (executor != null) {
+            // Ordered with the updates of the device
+            executor.execute(id, task);
+        }
+    }
+
+    private void refreshThings(FibaroDeviceState device) {
+        StripedExecutor executor = updateExecutor;
+        if (executor == null) {
+            return;
+        }
+        // Run on the stripe of the device so the refresh is ordered with its pushed updates
+        executor.execute(device.getId(), () -> {
+            for (FibaroAbstractThingHandler fibaroThingHandler : things.get(device.getId())) {
+                fibaroThingHandler.refresh(device);
+            }
+        });
+    }
+
+    private void startStatistics() {
+        if (statisticsJob != null) {
+            statisticsJob.cancel(false);
+        }
+        statisticsJob = scheduler.scheduleWithFixedDelay(this::updateStatistics, STATISTICS_INTERVAL,
+                STATISTICS_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Publishes the bridge statistics as thing properties
+     */
+    private void updateStatistics() {
+        StripedExecutor executor = updateExecutor;
+        if (executor == null) {
+            // A run that started before the bridge was disposed
+            return;
+        }
+        StringBuilder latency = new StringBuilder();
+        for (StripedExecutor.Stripe stripe : executor.getStripes()) {
+            if (latency.length() > 0) {
+                latency.append(", ");
+            }
+            latency.append(stripe.getQueueDepth()).append('/').append(stripe.getAverageLatency()).append('/')
+                    .append(stripe.getMaxLatency());
+        }
+        updateProperty(FibaroBindingConstants.PROPERTY_UPDATE_QUEUE_DEPTH,
+                String.valueOf(executor.getQueueDepth()));
+        // Per stripe: queue depth / average latency (us) / max latency (us)
+        updateProperty(FibaroBindingConstants.PROPERTY_UPDATE_STRIPE_LATENCY, latency.toString());
+        updateProperty(FibaroBindingConstants.PROPERTY_CACHE_HITS, String.valueOf(cache.getHits()));
+        updateProperty(FibaroBindingConstants.PROPERTY_CACHE_MISSES, String.valueOf(cache.getMisses()));
+        updateProperty(FibaroBindingConstants.PROPERTY_CACHE_EVICTIONS, String.valueOf(cache.getEvictions()));
+        updateProperty(FibaroBindingConstants.PROPERTY_SUPPRESSED_UPDATES, String.valueOf(suppressedUpdates.sum()));
+        FibaroUpdateQueue queue = updateQueue;
+        if (queue != null) {
+            // Pending / capacity (merged, dropped)
+            updateProperty(FibaroBindingConstants.PROPERTY_UPDATE_QUEUE, queue.size() + "/" + queue.getCapacity()
+                    + " (" + queue.getMerged() + ", " + queue.getDropped() + ")");
+        }
+        updateMetrics();
+
+        long runs = reconcileRuns.sum();
+        // Runs / last duration (ms) / average duration (ms) / current interval (s)
+        updateProperty(FibaroBindingConstants.PROPERTY_RECONCILE_COST, runs + "/" + lastReconcileTime + "/"
+                + (runs == 0 ? 0 : reconcileTime.sum() / runs) + "/" + currentReconcileInterval);
+        updateProperty(FibaroBindingConstants.PROPERTY_RECONCILE_DRIFT, String.valueOf(reconcileDrift.sum()));
+
+        FibaroHttpClient httpClient = factory.getHttpClient();
+        if (httpClient != null) {
+            // Requests sent / connections opened / connections open (share of requests on a reused connection)
+            updateProperty(FibaroBindingConstants.PROPERTY_HTTP_CONNECTIONS,
+                    httpClient.getRequests() + "/" + httpClient.getConnectionsOpened() + "/"
+                            + httpClient.getOpenConnections()
+                            + String.format(" (%.1f%%)", httpClient.getConnectionReuse()));
+        }
+
+        FibaroServer fibaroServer = server;
+        if (fibaroServer != null) {
+            int requests = fibaroServer.getRequests();
+            double requestRate = (double) (requests - lastServerRequests) / STATISTICS_INTERVAL;
+            lastServerRequests = requests;
+            updateProperty(FibaroBindingConstants.PROPERTY_SERVER_REQUEST_RATE, String.format("%.2f/s", requestRate));
+            // Busy threads / threads / max threads (queued jobs)
+            updateProperty(FibaroBindingConstants.PROPERTY_SERVER_THREAD_POOL,
+                    fibaroServer.getBusyThreads() + "/" + fibaroServer.getThreads() + "/"
+                            + fibaroServer.getMaxThreads() + " (" + fibaroServer.getQueueSize() + ")");
+        }
+    }
+
+    /**
+     * Publishes the latencies and the cache hit ratio of the last statistics interval on the metric channels, and as
+     * count / errors / p50 (ms) / p99 (ms) on the properties
+     */
+    private void updateMetrics() {
+        ThingUID uid = getThing().getUID();
+        for (FibaroMetric metric : FibaroMetric.values()) {
+            FibaroLatencyHistogram.Snapshot snapshot = metrics.snapshot(metric);
+            String group = metric.getId();
+            updateProperty(group, snapshot.toString());
+            updateState(new ChannelUID(uid, group, FibaroBindingConstants.CHANNEL_METRIC_RATE),
+                    new DecimalType((double) snapshot.getCount() / STATISTICS_INTERVAL));
+            updateState(new ChannelUID(uid, group, FibaroBindingConstants.CHANNEL_METRIC_ERROR_RATE),
+                    new DecimalType(snapshot.getErrorRate()));
+            updateState(new ChannelUID(uid, group, FibaroBindingConstants.CHANNEL_METRIC_P50),
+                    new DecimalType(snapshot.getP50()));
+            updateState(new ChannelUID(uid, group, FibaroBindingConstants.CHANNEL_METRIC_P99),
+                    new DecimalType(snapshot.getP99()));
+        }
+
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        long lookups = hits - lastCacheHits + misses - lastCacheMisses;
+        double hitRatio = lookups == 0 ? 0 : (hits - lastCacheHits) * 100.0 / lookups;
+        lastCacheHits = hits;
+        lastCacheMisses = misses;
+        updateProperty(FibaroBindingConstants.PROPERTY_CACHE_HIT_RATIO, String.format("%.1f%%", hitRatio));
+        updateState(new ChannelUID(uid, FibaroBindingConstants.CHANNEL_GROUP_CACHE,
+                FibaroBindingConstants.CHANNEL_CACHE_HIT_RATIO), new DecimalType(hitRatio));
+    }
+
+    /**
+     * The latency metrics of this bridge
+     */
+    public FibaroMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public <T> T getConfigAs(Class<T> configurationClass) {
+        return getConfig().as(configurationClass);
+    }
+
+    /**
+     * Maps the Fibaro device types to the thing types they are discovered as
+     */
+    public FibaroDeviceTypes getDeviceTypes() {
+        return deviceTypes;
+    }
+
+    public String getIpAddress() {
+        return ipAddress;
+    }
+
+    /**
+     * Gets the device data, from the cache if possible. Concurrent requests for devices missing in the cache are
+     * coalesced, see {@link FibaroDeviceLoader}.
+     *
+     * @param id Fibaro device id
+     * @return the device data
+     * @throws Exception
+     */
+    public FibaroDeviceState getDeviceData(int id) throws Exception {
+        try {
+            return getDeviceDataAsync(id).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<FibaroDeviceState> getDeviceDataAsync(int id) {
+        return deviceLoader.load(id);
+    }
+
+    /**
+     * Creates the filter a thing uses to suppress publishing unchanged or throttled channel states. All filters share
+     * the republish interval configured on this bridge and its count of suppressed states.
+     *
+     * @param publisher Publishes states held back by the filter once their channel's minimum interval has passed
+     */
+    public FibaroStateFilter createStateFilter(BiConsumer<FibaroChannel, State> publisher) {
+        return new FibaroStateFilter(TimeUnit.MINUTES.toMillis(republishInterval), suppressedUpdates, scheduler,
+                publisher);
+    }
+
+    public void addToCache(int id, FibaroDeviceState device) {
+        cache.put(id, device);
+    }
+
+    public void removeFromCache(int id) {
+        cache.remove(id);
+    }
+
+    /**
+     * The device data cache, exposing its hit, miss and eviction counts
+     */
+    public InMemoryCache<Integer, FibaroDeviceState> getCache() {
+        return cache;
+    }
+
+    /**
+     * Calls the Fibaro API and returns a pojo of type passed in as result parameter. The calling thread is blocked
+     * until the response is received, use {@link #callFibaroApiAsync} where possible.
+     *
+     * @param method The http method to send the request with
+     * @param url Url to the api
+     * @param content The data sent with the request (if any)
+     * @param result The json pojo to parse the response into (using gson)
+     * @return json pojo holding the response data
+     * @throws Exception
+     */
+    public <T> T callFibaroApi(HttpMethod method, String url, String content, Class<T> result) throws Exception {
+        try {
+            return callFibaroApiAsync(method, url, content, result).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Gets all devices from the Fibaro API. The response is parsed while it is received straight into compact device
+     * states. This call blocks until the devices are received, use {@link #getAllDevicesAsync} where
+     * possible.
+     *
+     * @return all devices
+     * @throws Exception if the call failed
+     */
+    public List<FibaroDeviceState> getAllDevices() throws Exception {
+        try {
+            return getAllDevicesAsync().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the last known state of all devices, as fetched by the bridge and kept current by the updates and
+     * reconciliations since. This does not call the Fibaro API.
+     *
+     * @return all known devices
+     */
+    public List<FibaroDeviceState> getKnownDevices() {
+        return deviceSync.getAll();
+    }
+
+    /**
+     * Gets all devices from the Fibaro API without blocking, see {@link #getAllDevices}
+     *
+     * @return future completed with all devices
+     */
+    public CompletableFuture<List<FibaroDeviceState>> getAllDevicesAsync() {
+        return apiClient.stream(HttpMethod.GET, "http://" + getIpAddress() + "/api/devices", "",
+                FibaroDeviceReader::readDevices);
+    }
+
+    /**
+     * Calls the Fibaro API without blocking. Concurrent calls share the configured number of in-flight requests to
+     * the gateway.
+     *
+     * @param method The http method to send the request with
+     * @param url Url to the api
+     * @param content The data sent with the request (if any)
+     * @param result The json pojo to parse the response into (using gson)
+     * @return future completed with the json pojo holding the response data
+     */
+    public <T> CompletableFuture<T> callFibaroApiAsync(HttpMethod method, String url, String content,
+            Class<T> result) {
+        return apiClient.call(method, url, content, result);
+    }
+
+    public void addBridgeStatusListener(BridgeStatusListener listener) {
+        listeners.add(listener);
+        listener.bridgeStatusChanged(getThing().getStatus());
+    }
+
+    public void removeBridgeStatusListener(BridgeStatusListener listener) {
+        listeners.remove(listener);
+    }
+
+    public FibaroServer getFibaroServer(){
+        return this.server;
+    }
+
+}
@@ -2,12 +2,10 @@ package org.openhab.binding.fibaro.handler;
 
 import java.util.List;
 
-import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
-import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.fibaro.internal.exception.FibaroConfigurationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,7 +24,7 @@ public class FibaroMotionSensorThingHandler extends FibaroAbstractSensorThingHan
 
         try {
             init();
-            updateStatus(ThingStatus.ONLINE);
+            start();
         } catch (FibaroConfigurationException e) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, e.getMessage());
         }
@@ -38,20 +36,9 @@ public class FibaroMotionSensorThingHandler extends FibaroAbstractSensorThingHan
 
         // TODO Figure out what Thing type and add default channels here maybe?
         Thing thing = this.thing;
-        ThingUID uid = thing.getUID();
 
-        Bridge b = getBridge();
-        List<Thing> t = b.getThings();
-
-        boolean contains = false;
-        for (Thing thing2 : t) {
-            if (uid.equals(thing2.getUID())) {
-                contains = true;
-                break;
-            }
-        }
-
-        if (!contains) {
+        // The bridge lists the things whose bridge uid is its own, compare the uid instead of searching its things
+        if (!bridge.getThing().getUID().equals(thing.getBridgeUID())) {
             List<Channel> channels = thing.getChannels();
             logger.debug(channels.toString());
         }
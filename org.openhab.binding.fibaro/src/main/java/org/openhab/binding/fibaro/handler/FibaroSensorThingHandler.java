@@ -38,7 +38,7 @@ public class FibaroSensorThingHandler extends FibaroAbstractSensorThingHandler {
     public void initialize() {
         try {
             init();
-            updateStatus(ThingStatus.ONLINE);
+            start();
         } catch (FibaroConfigurationException e) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, e.getMessage());
         }
@@ -54,13 +54,6 @@ public class FibaroSensorThingHandler extends FibaroAbstractSensorThingHandler {
             throw new FibaroConfigurationException(FibaroThingConfiguration.ID + "' must be larget than 0");
         }
 
-        try {
-            bridge.getDeviceData(id);
-        } catch (Exception e) {
-            throw new FibaroConfigurationException(
-                    "Could not get device data from the Fibaro api for id " + id + ". Does this id exist?", e);
-        }
-
         reportThingIdToBridge(id);
     }
 
@@ -68,7 +61,7 @@ public class FibaroSensorThingHandler extends FibaroAbstractSensorThingHandler {
     public void handleCommand(ChannelUID channelUID, Command command) {
         try {
             if (command instanceof RefreshType) {
-                updateChannel(channelUID.getId(), bridge.getDeviceData(id));
+                refreshChannel(channelUID.getId(), bridge.getDeviceData(id));
             } else {
                 logger.debug("Can't handle command: {}", command.toString());
             }
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.handler;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Predicate;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.openhab.binding.fibaro.internal.FibaroMetric;
+import org.openhab.binding.fibaro.internal.FibaroMetrics;
+import org.openhab.binding.fibaro.internal.model.json.FibaroUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Handler class for the Fibaro Server. A request may carry a single update, a json array of updates or a stream of
+ * updates separated by newlines. The updates are parsed one at a time and dispatched in the order they were sent. The
+ * request is acknowledged as soon as the updates have been dispatched, they are handled on the bridge update threads.
+ * When the bridge is too far behind and rejects all updates of a request, the request is answered with 503 and a
+ * Retry-After header, so the sender knows to send its updates again instead of timing out. When only some updates are
+ * rejected the request is answered with 200, as sending it again would replay the accepted updates over newer states,
+ * and a resync of the devices is requested instead.
+ * The handler only depends on where the updates are dispatched to, so it can also be driven without a bridge.
+ *
+ * @author Johan Williams - Initial Contribution
+ */
+public class FibaroServerHandler extends AbstractHandler {
+
+    private Logger logger = LoggerFactory.getLogger(FibaroServerHandler.class);
+
+    private static final String RETRY_AFTER = "1"; // 1s
+
+    private final Predicate<FibaroUpdate> dispatcher;
+    private final Runnable resync;
+    private final FibaroMetrics metrics;
+    private Gson gson;
+
+    public FibaroServerHandler(FibaroGatewayBridgeHandler fibaroBridgeHandler) {
+        this(fibaroBridgeHandler::dispatchFibaroUpdate, fibaroBridgeHandler::requestReconciliation,
+                fibaroBridgeHandler.getMetrics());
+    }
+
+    /**
+     * @param dispatcher Receives every update as soon as it has been parsed, returns false if the update was rejected
+     * @param metrics Metrics the time to handle a request is recorded in
+     */
+    public FibaroServerHandler(Predicate<FibaroUpdate> dispatcher, FibaroMetrics metrics) {
+        this(dispatcher, () -> {
+        }, metrics);
+    }
+
+    /**
+     * @param dispatcher Receives every update as soon as it has been parsed, returns false if the update was rejected
+     * @param resync Requests a resync of the devices, called when some but not all updates of a request were rejected
+     * @param metrics Metrics the time to handle a request is recorded in
+     */
+    public FibaroServerHandler(Predicate<FibaroUpdate> dispatcher, Runnable resync, FibaroMetrics metrics) {
+        super();
+        this.dispatcher = dispatcher;
+        this.resync = resync;
+        this.metrics = metrics;
+        gson = new Gson();
+    }
+
+    @Override
+    public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+
+        long started = System.nanoTime();
+        boolean failed = true;
+
+        try {
+            Dispatched dispatched = handleUpdates(request.getReader());
+            if (dispatched.getRejected() > 0 && dispatched.getAccepted() == 0) {
+                logger.debug("Shedding load, all {} updates of the request were rejected", dispatched.getRejected());
+                response.setHeader(HttpHeader.RETRY_AFTER.asString(), RETRY_AFTER);
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            } else {
+                if (dispatched.getRejected() > 0) {
+                    // Sending the request again would replay the accepted updates, resync the dropped ones instead
+                    logger.debug("Shedding load, {} of {} updates of the request were rejected",
+                            dispatched.getRejected(), dispatched.getAccepted() + dispatched.getRejected());
+                    resync.run();
+                }
+                response.setStatus(HttpServletResponse.SC_OK);
+                failed = false;
+            }
+        } catch (JsonParseException | IllegalStateException | IOException e) {
+            // An empty or truncated body ends in an EOFException
+            logger.debug("Failed to parse the update request: {}", e.getMessage());
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        } finally {
+            baseRequest.setHandled(true);
+            metrics.record(FibaroMetric.PUSH_INGESTION, System.nanoTime() - started, failed);
+        }
+    }
+
+    /**
+     * Reads all updates from a request body, either top level objects or objects wrapped in arrays, and dispatches
+     * them as soon as each one has been read
+     *
+     * @param reader Reader of the request body
+     * @return the number of updates accepted and rejected by the dispatcher
+     * @throws IOException if the body could not be read or is not valid json
+     */
+    public Dispatched handleUpdates(Reader reader) throws IOException {
+        JsonReader jsonReader = new JsonReader(reader);
+        // Lenient so that several top level objects (newline delimited) can be read from the same stream
+        jsonReader.setLenient(true);
+        Dispatched dispatched = new Dispatched();
+        JsonToken token = jsonReader.peek();
+        while (token != JsonToken.END_DOCUMENT) {
+            if (token == JsonToken.BEGIN_ARRAY) {
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    handleUpdate(jsonReader, dispatched);
+                }
+                jsonReader.endArray();
+            } else {
+                handleUpdate(jsonReader, dispatched);
+            }
+            token = jsonReader.peek();
+        }
+        return dispatched;
+    }
+
+    private void handleUpdate(JsonReader jsonReader, Dispatched dispatched) {
+        FibaroUpdate fibaroUpdate = gson.fromJson(jsonReader, FibaroUpdate.class);
+        if (fibaroUpdate == null) {
+            return;
+        }
+        if (dispatcher.test(fibaroUpdate)) {
+            dispatched.accepted++;
+        } else {
+            dispatched.rejected++;
+        }
+    }
+
+    /**
+     * Number of updates of a request accepted and rejected by the dispatcher
+     */
+    public static class Dispatched {
+        private int accepted;
+        private int rejected;
+
+        public int getAccepted() {
+            return accepted;
+        }
+
+        public int getRejected() {
+            return rejected;
+        }
+    }
+
+}
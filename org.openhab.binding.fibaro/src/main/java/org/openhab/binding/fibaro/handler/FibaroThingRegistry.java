@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.handler;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.smarthome.core.thing.ThingUID;
+
+/**
+ * Registry of the thing handlers attached to a bridge, keyed by the Fibaro device id. Several handlers may share the
+ * same device id. Lookups by id are lock free and do not box the id, which keeps the update path cheap, while the
+ * rare writes are serialized. Handlers are also indexed by their {@link ThingUID}.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroThingRegistry {
+
+    private static final FibaroAbstractThingHandler[] NONE = new FibaroAbstractThingHandler[0];
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Open addressing hash table with linear probing. A key is never cleared once set (0 marks a free slot), removing
+     * the last handler of an id leaves an empty handler array which is dropped the next time the table is resized.
+     */
+    private static class Table {
+        final AtomicIntegerArray keys;
+        final AtomicReferenceArray<FibaroAbstractThingHandler[]> handlers;
+        final int mask;
+        int usedSlots;
+
+        Table(int capacity) {
+            keys = new AtomicIntegerArray(capacity);
+            handlers = new AtomicReferenceArray<FibaroAbstractThingHandler[]>(capacity);
+            mask = capacity - 1;
+        }
+
+        int indexOf(int id) {
+            int index = hash(id) & mask;
+            while (true) {
+                int key = keys.get(index);
+                if (key == id || key == 0) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+    }
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    private final Map<ThingUID, FibaroAbstractThingHandler> handlersByUID = new ConcurrentHashMap<>();
+    private int size;
+
+    /**
+     * Adds a handler for a Fibaro device id
+     *
+     * @param id Fibaro device id, must be larger than 0
+     * @param handler Handler to add
+     */
+    public synchronized void add(int id, FibaroAbstractThingHandler handler) {
+        if (id < 1) {
+            throw new IllegalArgumentException("Fibaro device id must be larger than 0");
+        }
+        Table t = table;
+        int index = t.indexOf(id);
+        FibaroAbstractThingHandler[] current = t.handlers.get(index);
+        if (current != null && Arrays.asList(current).contains(handler)) {
+            return;
+        }
+
+        FibaroAbstractThingHandler[] updated;
+        if (current == null) {
+            updated = new FibaroAbstractThingHandler[] { handler };
+        } else {
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = handler;
+        }
+
+        // Publish the handlers before the key so a reader finding the key always finds its handlers
+        t.handlers.set(index, updated);
+        if (t.keys.get(index) == 0) {
+            t.keys.set(index, id);
+            t.usedSlots++;
+            if (t.usedSlots * 2 > t.keys.length()) {
+                resize(t);
+            }
+        }
+        handlersByUID.put(handler.getThing().getUID(), handler);
+        size++;
+    }
+
+    /**
+     * Removes a handler for a Fibaro device id
+     *
+     * @param id Fibaro device id
+     * @param handler Handler to remove
+     */
+    public synchronized void remove(int id, FibaroAbstractThingHandler handler) {
+        handlersByUID.remove(handler.getThing().getUID(), handler);
+        if (id < 1) {
+            return;
+        }
+        Table t = table;
+        int index = t.indexOf(id);
+        FibaroAbstractThingHandler[] current = t.handlers.get(index);
+        if (current == null) {
+            return;
+        }
+        int position = Arrays.asList(current).indexOf(handler);
+        if (position < 0) {
+            return;
+        }
+
+        FibaroAbstractThingHandler[] updated = new FibaroAbstractThingHandler[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, position);
+        System.arraycopy(current, position + 1, updated, position, current.length - position - 1);
+        t.handlers.set(index, updated);
+        size--;
+    }
+
+    /**
+     * Gets all handlers for a Fibaro device id
+     *
+     * @param id Fibaro device id
+     * @return the handlers, an empty array if there are none
+     */
+    public FibaroAbstractThingHandler[] get(int id) {
+        if (id < 1) {
+            return NONE;
+        }
+        Table t = table;
+        int index = t.indexOf(id);
+        if (t.keys.get(index) != id) {
+            return NONE;
+        }
+        FibaroAbstractThingHandler[] handlers = t.handlers.get(index);
+        return handlers == null ? NONE : handlers;
+    }
+
+    /**
+     * Gets the handler of a thing
+     *
+     * @param uid Thing uid
+     * @return the handler or null if the thing is not registered
+     */
+    public FibaroAbstractThingHandler get(ThingUID uid) {
+        return handlersByUID.get(uid);
+    }
+
+    /**
+     * Gets all handlers
+     */
+    public Collection<FibaroAbstractThingHandler> getAll() {
+        return handlersByUID.values();
+    }
+
+    public boolean contains(ThingUID uid) {
+        return handlersByUID.containsKey(uid);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void resize(Table old) {
+        // Size the new table from the ids still in use, slots left behind by removed ids are dropped
+        int live = 0;
+        for (int i = 0; i < old.keys.length(); i++) {
+            FibaroAbstractThingHandler[] handlers = old.handlers.get(i);
+            if (handlers != null && handlers.length > 0) {
+                live++;
+            }
+        }
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < live * 4) {
+            capacity *= 2;
+        }
+
+        Table t = new Table(capacity);
+        for (int i = 0; i < old.keys.length(); i++) {
+            int key = old.keys.get(i);
+            FibaroAbstractThingHandler[] handlers = old.handlers.get(i);
+            if (key != 0 && handlers != null && handlers.length > 0) {
+                int index = t.indexOf(key);
+                t.handlers.set(index, handlers);
+                t.keys.set(index, key);
+                t.usedSlots++;
+            }
+        }
+        table = t;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
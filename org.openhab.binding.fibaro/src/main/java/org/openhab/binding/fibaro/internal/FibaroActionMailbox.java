@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Mailbox for the actions sent to one device. At most one action is sent at a time. Actions submitted while one is
+ * being sent replace each other, so only the latest one is sent once the running action completes.
+ * <p>
+ * Steps, such as increasing a level, are relative to the actions before them and are queued behind the waiting
+ * action instead of replacing it, so no step is lost. A later action replaces the waiting steps as well.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroActionMailbox {
+
+    private Logger logger = LoggerFactory.getLogger(FibaroActionMailbox.class);
+
+    // Enough steps to move a level from one end to the other
+    private static final int MAX_PENDING_STEPS = 10;
+
+    private final BiFunction<String, String, CompletableFuture<?>> sender;
+    private final LongAdder superseded = new LongAdder();
+
+    private final Deque<Action> pending = new ArrayDeque<Action>();
+    private boolean sending;
+
+    private static class Action {
+        private final String url;
+        private final String content;
+
+        private Action(String url, String content) {
+            this.url = url;
+            this.content = content;
+        }
+    }
+
+    /**
+     * @param sender Sends an action (url and content) to the Fibaro api
+     */
+    public FibaroActionMailbox(BiFunction<String, String, CompletableFuture<?>> sender) {
+        this.sender = sender;
+    }
+
+    /**
+     * Sends the action, or queues it to be sent when the running action completes. A queued action which has not yet
+     * been sent is replaced.
+     *
+     * @param url Url to the action
+     * @param content The action arguments (if any)
+     */
+    public void submit(String url, String content) {
+        synchronized (this) {
+            if (sending) {
+                if (!pending.isEmpty()) {
+                    logger.trace("{} actions superseded by {} {}", pending.size(), url, content);
+                    superseded.add(pending.size());
+                    pending.clear();
+                }
+                pending.add(new Action(url, content));
+                return;
+            }
+            sending = true;
+        }
+        send(url, content);
+    }
+
+    /**
+     * Sends the step, or queues it behind the waiting actions to be sent when they have been sent. When more steps
+     * than it takes to move a level from one end to the other are waiting the step is dropped.
+     *
+     * @param url Url to the step action
+     * @param content The action arguments (if any)
+     */
+    public void submitStep(String url, String content) {
+        synchronized (this) {
+            if (sending) {
+                if (pending.size() >= MAX_PENDING_STEPS) {
+                    logger.trace("Step {} {} dropped, {} actions are waiting", url, content, pending.size());
+                    superseded.increment();
+                } else {
+                    pending.add(new Action(url, content));
+                }
+                return;
+            }
+            sending = true;
+        }
+        send(url, content);
+    }
+
+    /**
+     * Number of actions which were replaced by a later action, or steps dropped, before being sent
+     */
+    public long getSuperseded() {
+        return superseded.sum();
+    }
+
+    private void send(String url, String content) {
+        CompletableFuture<?> future;
+        try {
+            future = sender.apply(url, content);
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<Object>();
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((response, e) -> {
+            if (e != null) {
+                logger.debug("Failed to send action {} : {}", url, e.getMessage());
+            } else {
+                logger.debug("{}", response);
+            }
+            sendPending();
+        });
+    }
+
+    private void sendPending() {
+        Action action;
+        synchronized (this) {
+            action = pending.poll();
+            if (action == null) {
+                sending = false;
+                return;
+            }
+        }
+        send(action.url, action.content);
+    }
+
+}
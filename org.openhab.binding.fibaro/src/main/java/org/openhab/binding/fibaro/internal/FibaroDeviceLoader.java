@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http.HttpMethod;
+import org.openhab.binding.fibaro.internal.communicator.client.FibaroApiClient;
+import org.openhab.binding.fibaro.internal.exception.FibaroException;
+import org.openhab.binding.fibaro.internal.model.FibaroDeviceState;
+import org.openhab.binding.fibaro.internal.model.json.FibaroDeviceReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads device data through the device cache. Concurrent cache misses for the same device share one request to the
+ * Fibaro api. Misses are collected during a short window, if many different devices miss within the window they are
+ * all loaded with one bulk request for all devices which also repopulates the cache.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroDeviceLoader {
+
+    private Logger logger = LoggerFactory.getLogger(FibaroDeviceLoader.class);
+
+    private final FibaroApiClient apiClient;
+    private final String baseUrl;
+    private final InMemoryCache<Integer, FibaroDeviceState> cache;
+    private final ScheduledExecutorService scheduler;
+    private final long batchWindow;
+    private final int bulkThreshold;
+
+    private final ConcurrentHashMap<Integer, CompletableFuture<FibaroDeviceState>> inFlight = new ConcurrentHashMap<>();
+    private final Set<Integer> pendingIds = new HashSet<Integer>();
+    private ScheduledFuture<?> batchJob;
+
+    /**
+     * @param apiClient Client used to call the Fibaro api
+     * @param baseUrl Base url to the Fibaro api, for example http://192.168.1.4
+     * @param cache The device cache to read from and populate
+     * @param scheduler Scheduler used to run the batches
+     * @param batchWindow Time in milliseconds misses are collected before they are loaded
+     * @param bulkThreshold Number of different devices in a batch from which all devices are loaded in one request
+     */
+    public FibaroDeviceLoader(FibaroApiClient apiClient, String baseUrl,
+            InMemoryCache<Integer, FibaroDeviceState> cache, ScheduledExecutorService scheduler, long batchWindow,
+            int bulkThreshold) {
+        this.apiClient = apiClient;
+        this.baseUrl = baseUrl;
+        this.cache = cache;
+        this.scheduler = scheduler;
+        this.batchWindow = batchWindow;
+        this.bulkThreshold = bulkThreshold;
+    }
+
+    /**
+     * Gets the device data, from the cache if possible
+     *
+     * @param id Fibaro device id
+     * @return future completed with the device data
+     */
+    public CompletableFuture<FibaroDeviceState> load(int id) {
+        FibaroDeviceState device = cache.get(id);
+        if (device != null) {
+            return CompletableFuture.completedFuture(device);
+        }
+
+        CompletableFuture<FibaroDeviceState> future = new CompletableFuture<FibaroDeviceState>();
+        CompletableFuture<FibaroDeviceState> existing = inFlight.putIfAbsent(id, future);
+        if (existing != null) {
+            return existing;
+        }
+        enqueue(id);
+        return future;
+    }
+
+    /**
+     * Stops any batch waiting to be loaded and fails the requests waiting for it
+     */
+    public void stop() {
+        synchronized (this) {
+            if (batchJob != null) {
+                batchJob.cancel(false);
+                batchJob = null;
+            }
+            pendingIds.clear();
+        }
+        for (Integer id : new ArrayList<Integer>(inFlight.keySet())) {
+            complete(id, null, new FibaroException("The device loader was stopped"));
+        }
+    }
+
+    private synchronized void enqueue(int id) {
+        pendingIds.add(id);
+        if (batchJob == null) {
+            batchJob = scheduler.schedule(this::loadPending, batchWindow, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void loadPending() {
+        List<Integer> ids;
+        synchronized (this) {
+            ids = new ArrayList<Integer>(pendingIds);
+            pendingIds.clear();
+            batchJob = null;
+        }
+
+        if (ids.size() >= bulkThreshold) {
+            logger.debug("Loading {} devices with one bulk request", ids.size());
+            loadAll(ids);
+        } else {
+            for (Integer id : ids) {
+                loadOne(id);
+            }
+        }
+    }
+
+    private void loadOne(int id) {
+        String url = baseUrl + "/api/devices/" + id;
+        apiClient.stream(HttpMethod.GET, url, "", FibaroDeviceReader::readDevice)
+                .whenComplete((device, e) -> complete(id, device,
+                        device == null && e == null ? new FibaroException("No device data returned for id " + id) : e));
+    }
+
+    private void loadAll(List<Integer> ids) {
+        String url = baseUrl + "/api/devices";
+        apiClient.stream(HttpMethod.GET, url, "", FibaroDeviceReader::readDevices).whenComplete((devices, e) -> {
+            Map<Integer, FibaroDeviceState> loaded = new HashMap<Integer, FibaroDeviceState>();
+            if (devices != null) {
+                for (FibaroDeviceState device : devices) {
+                    cache.put(device.getId(), device);
+                    loaded.put(device.getId(), device);
+                }
+            }
+            for (Integer id : ids) {
+                FibaroDeviceState device = loaded.get(id);
+                complete(id, device,
+                        device == null && e == null ? new FibaroException("No device with id " + id + " found") : e);
+            }
+        });
+    }
+
+    private void complete(int id, FibaroDeviceState device, Throwable e) {
+        // Populate the cache before releasing the in-flight request so no later miss can slip in between
+        if (device != null) {
+            cache.put(id, device);
+        }
+        CompletableFuture<FibaroDeviceState> future = inFlight.remove(id);
+        if (future == null) {
+            return;
+        }
+        if (device != null) {
+            future.complete(device);
+        } else {
+            future.completeExceptionally(e);
+        }
+    }
+
+}
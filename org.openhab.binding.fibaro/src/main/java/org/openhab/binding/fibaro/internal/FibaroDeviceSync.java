@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.fibaro.internal.model.FibaroDeviceState;
+import org.openhab.binding.fibaro.internal.model.PropertyName;
+import org.openhab.binding.fibaro.internal.model.json.FibaroUpdate;
+
+/**
+ * Keeps the last known state of every device, as seen by the last sync and the updates received since. A sync compares
+ * all devices with it and reports only the devices that were added, modified or removed, and the property values that
+ * drifted from what the received updates told us.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroDeviceSync {
+
+    private final Map<Integer, FibaroDeviceState> states = new ConcurrentHashMap<Integer, FibaroDeviceState>();
+    private final Map<Integer, Long> lastUpdates = new ConcurrentHashMap<Integer, Long>();
+
+    /**
+     * The devices that changed between two syncs
+     */
+    public static class Changes {
+        private final List<FibaroDeviceState> changed;
+        private final List<Integer> removed;
+        private final List<FibaroUpdate> drift;
+
+        private Changes(List<FibaroDeviceState> changed, List<Integer> removed, List<FibaroUpdate> drift) {
+            this.changed = changed;
+            this.removed = removed;
+            this.drift = drift;
+        }
+
+        /**
+         * Devices that were added or modified
+         */
+        public List<FibaroDeviceState> getChanged() {
+            return changed;
+        }
+
+        /**
+         * Ids of the devices that were removed
+         */
+        public List<Integer> getRemoved() {
+            return removed;
+        }
+
+        /**
+         * Property values that differ from the last known state without an update telling us
+         */
+        public List<FibaroUpdate> getDrift() {
+            return drift;
+        }
+
+        public boolean isEmpty() {
+            return changed.isEmpty() && removed.isEmpty() && drift.isEmpty();
+        }
+    }
+
+    /**
+     * Applies a received update to the last known state of its device
+     *
+     * @param fibaroUpdate The received update
+     * @param now Current time in milliseconds
+     */
+    public void update(FibaroUpdate fibaroUpdate, long now) {
+        FibaroDeviceState state = states.get(fibaroUpdate.getId());
+        if (state != null) {
+            state.updateProperty(fibaroUpdate.getProperty(), fibaroUpdate.getValue());
+        }
+        lastUpdates.put(fibaroUpdate.getId(), now);
+    }
+
+    /**
+     * Gets the last known state of a device
+     *
+     * @param id Fibaro device id
+     * @return the state or null if the device is not known
+     */
+    public FibaroDeviceState get(int id) {
+        return states.get(id);
+    }
+
+    /**
+     * Gets the last known state of all devices
+     *
+     * @return a copy of the list of states
+     */
+    public List<FibaroDeviceState> getAll() {
+        return new ArrayList<FibaroDeviceState>(states.values());
+    }
+
+    /**
+     * Compares all devices with the last known states and remembers them for the next sync
+     *
+     * @param devices All devices currently reported by the Fibaro api
+     * @param fetched Time in milliseconds the devices were requested, devices updated after it keep their known state
+     * @return the devices added, modified or removed and the drifted properties since the last sync
+     */
+    public synchronized Changes sync(List<FibaroDeviceState> devices, long fetched) {
+        List<FibaroDeviceState> changed = new ArrayList<FibaroDeviceState>();
+        List<FibaroUpdate> drift = new ArrayList<FibaroUpdate>();
+        Set<Integer> seen = new HashSet<Integer>(devices.size() * 2);
+        for (FibaroDeviceState device : devices) {
+            int id = device.getId();
+            seen.add(id);
+            FibaroDeviceState known = states.get(id);
+            if (known == null) {
+                changed.add(device);
+                states.put(id, device);
+                continue;
+            }
+            Long lastUpdate = lastUpdates.get(id);
+            if (lastUpdate != null && lastUpdate >= fetched) {
+                // The update received while fetching is newer than the fetched state
+                continue;
+            }
+            if (known.getModified() != device.getModified()) {
+                changed.add(device);
+            }
+            for (PropertyName property : PropertyName.values()) {
+                String value = device.getProperty(property.getName());
+                if (value != null && !value.equals(known.getProperty(property.getName()))) {
+                    FibaroUpdate fibaroUpdate = new FibaroUpdate();
+                    fibaroUpdate.setId(id);
+                    fibaroUpdate.setProperty(property.getName());
+                    fibaroUpdate.setValue(value);
+                    drift.add(fibaroUpdate);
+                }
+            }
+            states.put(id, device);
+        }
+
+        List<Integer> removed = new ArrayList<Integer>();
+        for (Integer id : states.keySet()) {
+            if (!seen.contains(id)) {
+                removed.add(id);
+            }
+        }
+        for (Integer id : removed) {
+            states.remove(id);
+            lastUpdates.remove(id);
+        }
+        return new Changes(changed, removed, drift);
+    }
+
+    /**
+     * Forgets all devices so the next sync reports every device as added
+     */
+    public synchronized void reset() {
+        states.clear();
+        lastUpdates.clear();
+    }
+
+}
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Map;
 
+import org.eclipse.jetty.server.Handler;
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
 import org.eclipse.smarthome.core.thing.Bridge;
@@ -30,7 +31,12 @@ import org.openhab.binding.fibaro.handler.FibaroDoorSensorThingHandler;
 import org.openhab.binding.fibaro.handler.FibaroGatewayBridgeHandler;
 import org.openhab.binding.fibaro.handler.FibaroMotionSensorThingHandler;
 import org.openhab.binding.fibaro.handler.FibaroSensorThingHandler;
+import org.openhab.binding.fibaro.internal.communicator.client.FibaroHttpClient;
+import org.openhab.binding.fibaro.internal.communicator.server.FibaroServer;
+import org.openhab.binding.fibaro.internal.communicator.server.FibaroServerRouter;
+import org.openhab.binding.fibaro.internal.exception.FibaroConfigurationException;
 import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,6 +52,16 @@ public class FibaroHandlerFactory extends BaseThingHandlerFactory {
 
     private Map<ThingUID, ServiceRegistration<?>> discoveryServiceRegs = new HashMap<>();
 
+    private static final int MAX_CONNECTIONS_PER_GATEWAY = 8;
+    private static final int MAX_REQUESTS_QUEUED_PER_GATEWAY = 256;
+
+    // Http client shared by all bridges, every gateway gets its own connection pool
+    private FibaroHttpClient httpClient;
+
+    // Update servers shared by all bridges listening on the same port
+    private Map<Integer, FibaroServer> servers = new HashMap<>();
+    private Map<Integer, FibaroServerRouter> routers = new HashMap<>();
+
     @Override
     public Thing createThing(ThingTypeUID thingTypeUID, Configuration configuration, ThingUID thingUID,
             ThingUID bridgeUID) {
@@ -191,5 +207,100 @@ public class FibaroHandlerFactory extends BaseThingHandlerFactory {
                 .registerService(DiscoveryService.class.getName(), discoveryService, new Hashtable<String, Object>()));
     }
 
+    /**
+     * Registers the update handler of a bridge with the update server listening on the port. The server is started
+     * when the first bridge registers, further bridges on the same port share it. Requests are routed to the bridge
+     * by the path {@code /fibaro/<bridgeId>}. A bridge sharing a server must have the same server settings as the
+     * bridge which started it.
+     *
+     * @param port Port the server listens on
+     * @param config Configuration of the bridge, used for the server settings if the server is started
+     * @param bridgeId Id of the bridge
+     * @param handler Handler of the update requests for the bridge
+     * @return the server
+     * @throws FibaroConfigurationException if the server settings differ from those of the running server
+     * @throws Exception if the server fails to start
+     */
+    public synchronized FibaroServer registerUpdateHandler(int port, FibaroGatewayConfiguration config,
+            String bridgeId, Handler handler) throws Exception {
+        FibaroServer server = servers.get(port);
+        FibaroServerRouter router = routers.get(port);
+        if (server == null) {
+            router = new FibaroServerRouter();
+            server = new FibaroServer(port, config, router);
+            servers.put(port, server);
+            routers.put(port, router);
+            logger.debug("Started Fibaro update server on port {}", port);
+        } else if (!server.getSettings().equals(FibaroServer.getSettings(config))) {
+            throw new FibaroConfigurationException("The update server on port " + port
+                    + " is shared with another bridge and runs with other settings (" + server.getSettings() + ")");
+        }
+        router.register(bridgeId, handler);
+        return server;
+    }
+
+    /**
+     * Unregisters the update handler of a bridge. The server is stopped when the last bridge has unregistered.
+     *
+     * @param port Port the server listens on
+     * @param bridgeId Id of the bridge
+     */
+    public synchronized void unregisterUpdateHandler(int port, String bridgeId) {
+        FibaroServerRouter router = routers.get(port);
+        if (router == null) {
+            return;
+        }
+        router.unregister(bridgeId);
+        if (router.isEmpty()) {
+            routers.remove(port);
+            stopServer(port, servers.remove(port));
+        }
+    }
+
+    /**
+     * Gets the http client shared by all bridges
+     */
+    public FibaroHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    @Override
+    protected synchronized void activate(ComponentContext componentContext) {
+        super.activate(componentContext);
+        httpClient = new FibaroHttpClient(MAX_CONNECTIONS_PER_GATEWAY, MAX_REQUESTS_QUEUED_PER_GATEWAY);
+        try {
+            httpClient.start();
+        } catch (Exception e) {
+            logger.warn("Failed to start the Fibaro http client: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    protected synchronized void deactivate(ComponentContext componentContext) {
+        for (Map.Entry<Integer, FibaroServer> entry : servers.entrySet()) {
+            stopServer(entry.getKey(), entry.getValue());
+        }
+        servers.clear();
+        routers.clear();
+        if (httpClient != null) {
+            try {
+                httpClient.stop();
+            } catch (Exception e) {
+                logger.debug("Error stopping the Fibaro http client {}", e.getMessage());
+            }
+            httpClient = null;
+        }
+        super.deactivate(componentContext);
+    }
+
+    private void stopServer(int port, FibaroServer server) {
+        try {
+            server.stop();
+            logger.debug("Stopped Fibaro update server on port {}", port);
+        } catch (Exception e) {
+            logger.debug("Error stopping Fibaro update server {}", e.getMessage());
+        }
+    }
+
     // MAKE SOMETHING TO HANDLE CHANNELS
 }
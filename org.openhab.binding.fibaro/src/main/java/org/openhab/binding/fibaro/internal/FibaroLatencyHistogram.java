@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of latencies with one bucket per power of two microseconds. Recording a latency is a single
+ * atomic increment and allocates nothing, so it can be called on every request and update. Percentiles are read from
+ * {@link #snapshot}, which covers the latencies recorded since the previous snapshot and reports the upper bound of the
+ * bucket the percentile falls in.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroLatencyHistogram {
+
+    // Bucket 0 holds latencies below 1us, bucket n latencies from 2^(n-1) up to 2^n us
+    private static final int BUCKETS = 40;
+    private static final int ERRORS = BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS + 1);
+    private final long[] lastCounts = new long[BUCKETS + 1];
+
+    /**
+     * Latencies recorded between two snapshots
+     */
+    public static class Snapshot {
+        private final long count;
+        private final long errors;
+        private final double p50;
+        private final double p99;
+
+        private Snapshot(long count, long errors, double p50, double p99) {
+            this.count = count;
+            this.errors = errors;
+            this.p50 = p50;
+            this.p99 = p99;
+        }
+
+        /**
+         * Number of recorded latencies, including the failed ones
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Number of recorded latencies that ended in an error
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Share of the recorded latencies that ended in an error, in percent
+         */
+        public double getErrorRate() {
+            return count == 0 ? 0 : errors * 100.0 / count;
+        }
+
+        /**
+         * Median latency in milliseconds
+         */
+        public double getP50() {
+            return p50;
+        }
+
+        /**
+         * 99th percentile latency in milliseconds
+         */
+        public double getP99() {
+            return p99;
+        }
+
+        @Override
+        public String toString() {
+            // Count / errors / p50 (ms) / p99 (ms)
+            return String.format("%d/%d/%.1f/%.1f", count, errors, p50, p99);
+        }
+    }
+
+    /**
+     * Records a latency
+     *
+     * @param nanos Latency in nanoseconds
+     * @param failed true if the measured call ended in an error
+     */
+    public void record(long nanos, boolean failed) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = micros <= 0 ? 0 : Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        counts.incrementAndGet(bucket);
+        if (failed) {
+            counts.incrementAndGet(ERRORS);
+        }
+    }
+
+    /**
+     * Takes the latencies recorded since the previous snapshot. Only the caller publishing the statistics should take
+     * snapshots, recording is never blocked by it.
+     */
+    public synchronized Snapshot snapshot() {
+        long[] interval = new long[BUCKETS + 1];
+        long count = 0;
+        for (int i = 0; i <= BUCKETS; i++) {
+            long current = counts.get(i);
+            interval[i] = current - lastCounts[i];
+            lastCounts[i] = current;
+            if (i < BUCKETS) {
+                count += interval[i];
+            }
+        }
+        return new Snapshot(count, interval[ERRORS], percentile(interval, count, 0.5),
+                percentile(interval, count, 0.99));
+    }
+
+    private static double percentile(long[] interval, long count, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += interval[i];
+            if (seen >= rank) {
+                return (1L << i) / 1000.0;
+            }
+        }
+        return (1L << (BUCKETS - 1)) / 1000.0;
+    }
+
+}
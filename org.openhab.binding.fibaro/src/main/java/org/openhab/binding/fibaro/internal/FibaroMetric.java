@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+/**
+ * The paths of the binding whose latency is measured. The id is used both as the bridge property and as the id of the
+ * bridge channel group the metric is published on.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public enum FibaroMetric {
+
+    API_DEVICES("apiDevices"),
+    API_DEVICE("apiDevice"),
+    API_ACTION("apiAction"),
+    PUSH_INGESTION("pushIngestion"),
+    UPDATE_TO_STATE("updateToState");
+
+    private static final String DEVICES_PATH = "/api/devices";
+
+    private final String id;
+
+    private FibaroMetric(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the metric of a Fibaro api call from its url, without allocating
+     *
+     * @param url Url to the api
+     * @return the metric or null if calls to the url are not measured
+     */
+    public static FibaroMetric ofApiUrl(String url) {
+        int path = url.indexOf(DEVICES_PATH);
+        if (path < 0) {
+            return null;
+        }
+        int end = path + DEVICES_PATH.length();
+        if (end == url.length() || (end == url.length() - 1 && url.charAt(end) == '/')) {
+            return API_DEVICES;
+        }
+        return url.indexOf("/action/", end) >= 0 ? API_ACTION : API_DEVICE;
+    }
+
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+/**
+ * Latency histograms of the measured paths of one bridge, see {@link FibaroMetric}
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroMetrics {
+
+    private final FibaroLatencyHistogram[] histograms = new FibaroLatencyHistogram[FibaroMetric.values().length];
+
+    public FibaroMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new FibaroLatencyHistogram();
+        }
+    }
+
+    /**
+     * Records a latency, see {@link FibaroLatencyHistogram#record}
+     *
+     * @param metric The measured path, ignored if null
+     * @param nanos Latency in nanoseconds
+     * @param failed true if the measured call ended in an error
+     */
+    public void record(FibaroMetric metric, long nanos, boolean failed) {
+        if (metric != null) {
+            histograms[metric.ordinal()].record(nanos, failed);
+        }
+    }
+
+    /**
+     * Takes the latencies of a path recorded since its previous snapshot
+     */
+    public FibaroLatencyHistogram.Snapshot snapshot(FibaroMetric metric) {
+        return histograms[metric.ordinal()].snapshot();
+    }
+
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import java.util.Calendar;
+
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.UnDefType;
+import org.openhab.binding.fibaro.FibaroChannel;
+
+/**
+ * Converts the values received from Fibaro into channel states. The conversions are stateless and do not depend on a
+ * thing handler, so every step of handling an update can be run and measured on its own.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroStateConverter {
+
+    private FibaroStateConverter() {
+    }
+
+    /**
+     * Converts a value received from Fibaro into the state type of a channel
+     *
+     * @param channel Channel the value is for
+     * @param value Value received from Fibaro
+     * @return the state, {@link UnDefType#UNDEF} if the value could not be converted
+     */
+    public static State toState(FibaroChannel channel, String value) {
+        switch (channel) {
+            case ALARM:
+            case DEAD:
+            case HEAT:
+            case MOTION:
+            case POWER_OUTLET:
+            case SMOKE:
+            case SWITCH:
+            case TAMPER:
+                return stringToOnOff(value);
+            case DIMMER:
+                return stringToPercent(value);
+            case DOOR:
+            case WINDOW:
+                return stringToOpenClosed(value);
+            default:
+                return stringToDecimal(value);
+        }
+    }
+
+    /**
+     * Tries to cast a string to a {@link OnOffType}
+     *
+     * @param str String to cast
+     * @return the OnOffType state or null if it could not be casted
+     */
+    public static State stringToOnOff(String str) {
+        if (str.equals("1") || str.equalsIgnoreCase("true") || str.equalsIgnoreCase("on")) {
+            return OnOffType.ON;
+        }
+        if (str.equals("0") || str.equalsIgnoreCase("false") || str.equalsIgnoreCase("off")) {
+            return OnOffType.OFF;
+        }
+        return UnDefType.UNDEF;
+    }
+
+    /**
+     * Tries to cast a string to a {@link OpenClosedType}
+     *
+     * @param str String to cast
+     * @return the OpenClosedType state or null if it could not be casted
+     */
+    public static State stringToOpenClosed(String str) {
+        if (str.equals("1") || str.equalsIgnoreCase("true") || str.equalsIgnoreCase("on")) {
+            return OpenClosedType.OPEN;
+        }
+        if (str.equals("0") || str.equalsIgnoreCase("false") || str.equalsIgnoreCase("off")) {
+            return OpenClosedType.CLOSED;
+        }
+        return UnDefType.UNDEF;
+    }
+
+    /**
+     * Tries to cast a string to a {@link PercentType}
+     *
+     * @param str String to cast
+     * @return the PercentType state or null if it could not be casted or is not between 0 and 100
+     */
+    public static State stringToPercent(String str) {
+        try {
+            int percent = Integer.valueOf(str).intValue();
+            if (percent >= 0 && percent <= 100) {
+                return new PercentType(percent);
+            }
+        } catch (NumberFormatException nfe) {
+            // Not a integer
+        }
+        return UnDefType.UNDEF;
+    }
+
+    /**
+     * Tries to cast a string to a {@link DecimalType}
+     *
+     * @param str String to cast
+     * @return the DecimalType state or null if it could not be casted
+     */
+    public static State stringToDecimal(String str) {
+        try {
+            double decimal = Double.valueOf(str).doubleValue();
+            return new DecimalType(decimal);
+        } catch (NumberFormatException nfe) {
+            // Not a double
+        }
+        return UnDefType.UNDEF;
+    }
+
+    /**
+     * Tries to cast a string to a {@link DateTimeType}
+     *
+     * @param str String to cast
+     * @return the DateTimeType state or null if it could not be casted
+     */
+    public static State stringToDateTime(String timeInMs) {
+        try {
+            Calendar time = Calendar.getInstance();
+            time.setTimeInMillis(Long.valueOf(timeInMs).longValue());
+            return new DateTimeType(time);
+        } catch (NumberFormatException nfe) {
+            // Not a double
+        }
+        return UnDefType.UNDEF;
+    }
+
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.fibaro.FibaroChannel;
+
+/**
+ * Keeps the last published state of each channel of a device and tells whether a new state needs to be published.
+ * A state equal to the last published one is suppressed. With a republish interval the last published state of each
+ * channel is published again when nothing was published on the channel for the interval, whether or not new states
+ * arrived in the meantime.
+ * <p>
+ * Channels can also be throttled with a deadband and a minimum interval. A decimal state within the deadband of the
+ * last published state is suppressed. A state arriving within the minimum interval is held back and the latest held
+ * back state is published when the interval has passed, so the last value is never lost.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroStateFilter {
+
+    private static final int CHANNEL_COUNT = FibaroChannel.values().length;
+
+    private final State[] lastStates = new State[CHANNEL_COUNT];
+    private final long[] lastPublished = new long[CHANNEL_COUNT];
+    private final double[] deadbands = new double[CHANNEL_COUNT];
+    private final double[] deadbandPercents = new double[CHANNEL_COUNT];
+    private final long[] minIntervals = new long[CHANNEL_COUNT];
+    private final boolean[] invalidated = new boolean[CHANNEL_COUNT];
+    private final State[] heldBackStates = new State[CHANNEL_COUNT];
+    private final ScheduledFuture<?>[] heldBackJobs = new ScheduledFuture<?>[CHANNEL_COUNT];
+    private final ScheduledFuture<?>[] heartbeatJobs = new ScheduledFuture<?>[CHANNEL_COUNT];
+
+    private final long republishInterval;
+    private boolean stopped;
+    private final LongAdder suppressed;
+    private final ScheduledExecutorService scheduler;
+    private final BiConsumer<FibaroChannel, State> publisher;
+
+    /**
+     * @param republishInterval Time in milliseconds after which the last published state is published again, 0 to
+     *            never publish unchanged states
+     * @param suppressed Counter incremented for every suppressed state
+     * @param scheduler Scheduler used to publish held back and republished states
+     * @param publisher Publishes a held back state when the minimum interval of its channel has passed, and the last
+     *            published state when the republish interval has passed
+     */
+    public FibaroStateFilter(long republishInterval, LongAdder suppressed, ScheduledExecutorService scheduler,
+            BiConsumer<FibaroChannel, State> publisher) {
+        this.republishInterval = republishInterval;
+        this.suppressed = suppressed;
+        this.scheduler = scheduler;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Sets how a channel is throttled
+     *
+     * @param channel Channel to throttle
+     * @param deadband Minimum absolute change of a decimal state, 0 to disable
+     * @param deadbandPercent Minimum change in percent of the last published decimal state, 0 to disable
+     * @param minInterval Minimum time in milliseconds between two published states, 0 to disable
+     */
+    public synchronized void throttle(FibaroChannel channel, double deadband, double deadbandPercent,
+            long minInterval) {
+        int index = channel.ordinal();
+        deadbands[index] = deadband;
+        deadbandPercents[index] = deadbandPercent;
+        minIntervals[index] = minInterval;
+    }
+
+    /**
+     * Checks whether the state should be published and if so records it as the last published state of the channel
+     *
+     * @param channel Channel the state is for
+     * @param state The new state
+     * @param now Current time in milliseconds
+     * @return true if the state should be published
+     */
+    public synchronized boolean shouldPublish(FibaroChannel channel, State state, long now) {
+        int index = channel.ordinal();
+        State last = lastStates[index];
+        boolean heartbeat = republishInterval > 0 && now - lastPublished[index] >= republishInterval;
+        if (!heartbeat && !invalidated[index] && (state.equals(last) || withinDeadband(index, last, state))) {
+            // Any held back state has been superseded by one matching what is already published
+            heldBackStates[index] = null;
+            suppressed.increment();
+            return false;
+        }
+
+        long minInterval = minIntervals[index];
+        if (minInterval > 0 && last != null && !invalidated[index] && now - lastPublished[index] < minInterval) {
+            // Hold the state back and publish the latest held back state when the interval has passed
+            heldBackStates[index] = state;
+            if (heldBackJobs[index] == null) {
+                heldBackJobs[index] = scheduler.schedule(() -> publishHeldBack(channel),
+                        lastPublished[index] + minInterval - now, TimeUnit.MILLISECONDS);
+            }
+            suppressed.increment();
+            return false;
+        }
+
+        lastStates[index] = state;
+        lastPublished[index] = now;
+        heldBackStates[index] = null;
+        invalidated[index] = false;
+        scheduleHeartbeat(channel, republishInterval);
+        return true;
+    }
+
+    /**
+     * Schedules the republish of a channel unless it is already scheduled. The job is not moved on every publish, when
+     * it runs it checks when the channel was last published and schedules itself again for the remaining time.
+     */
+    private void scheduleHeartbeat(FibaroChannel channel, long delay) {
+        int index = channel.ordinal();
+        if (republishInterval > 0 && heartbeatJobs[index] == null && !stopped) {
+            heartbeatJobs[index] = scheduler.schedule(() -> heartbeat(channel), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void heartbeat(FibaroChannel channel) {
+        State state;
+        synchronized (this) {
+            int index = channel.ordinal();
+            heartbeatJobs[index] = null;
+            state = lastStates[index];
+            if (state == null) {
+                // Reset or stopped, the next published state schedules the heartbeat again
+                return;
+            }
+            long now = System.currentTimeMillis();
+            long remaining = lastPublished[index] + republishInterval - now;
+            if (remaining > 0) {
+                scheduleHeartbeat(channel, remaining);
+                return;
+            }
+            lastPublished[index] = now;
+            scheduleHeartbeat(channel, republishInterval);
+        }
+        publisher.accept(channel, state);
+    }
+
+    private boolean withinDeadband(int index, State last, State state) {
+        if (!(last instanceof DecimalType) || !(state instanceof DecimalType)) {
+            return false;
+        }
+        double lastValue = ((DecimalType) last).doubleValue();
+        double change = Math.abs(((DecimalType) state).doubleValue() - lastValue);
+        if (deadbands[index] > 0 && change <= deadbands[index]) {
+            return true;
+        }
+        return deadbandPercents[index] > 0 && change <= Math.abs(lastValue) * deadbandPercents[index] / 100;
+    }
+
+    private void publishHeldBack(FibaroChannel channel) {
+        State state;
+        synchronized (this) {
+            int index = channel.ordinal();
+            heldBackJobs[index] = null;
+            state = heldBackStates[index];
+            if (state == null) {
+                return;
+            }
+            heldBackStates[index] = null;
+            lastStates[index] = state;
+            lastPublished[index] = System.currentTimeMillis();
+            scheduleHeartbeat(channel, republishInterval);
+        }
+        publisher.accept(channel, state);
+    }
+
+    /**
+     * Drops all held back states and stops republishing
+     */
+    public synchronized void stop() {
+        stopped = true;
+        for (int i = 0; i < CHANNEL_COUNT; i++) {
+            if (heldBackJobs[i] != null) {
+                heldBackJobs[i].cancel(false);
+                heldBackJobs[i] = null;
+            }
+            heldBackStates[i] = null;
+            cancelHeartbeat(i);
+        }
+    }
+
+    private void cancelHeartbeat(int index) {
+        if (heartbeatJobs[index] != null) {
+            heartbeatJobs[index].cancel(false);
+            heartbeatJobs[index] = null;
+        }
+    }
+
+    /**
+     * Forgets the last published state of a channel so the next state is always published. The channel is not
+     * republished until a state has been published again.
+     */
+    public synchronized void reset(FibaroChannel channel) {
+        lastStates[channel.ordinal()] = null;
+        cancelHeartbeat(channel.ordinal());
+    }
+
+    /**
+     * Publishes the next state of a channel even if it equals the last published one, for example because a command
+     * sent to the channel made the item show a state the device may never reach. Unlike {@link #reset(FibaroChannel)}
+     * the last published state keeps being republished, which corrects the item if no new state arrives.
+     */
+    public synchronized void invalidate(FibaroChannel channel) {
+        invalidated[channel.ordinal()] = true;
+    }
+
+    /**
+     * Forgets the last published state of all channels
+     */
+    public synchronized void reset() {
+        Arrays.fill(lastStates, null);
+        for (int i = 0; i < CHANNEL_COUNT; i++) {
+            cancelHeartbeat(i);
+        }
+    }
+
+}
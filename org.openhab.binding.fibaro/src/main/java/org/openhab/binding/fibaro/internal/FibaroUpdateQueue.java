@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.openhab.binding.fibaro.internal.model.FibaroPropertyKeys;
+import org.openhab.binding.fibaro.internal.model.json.FibaroUpdate;
+
+/**
+ * Bounded queue of the updates waiting to be handled on the {@link StripedExecutor}. For meter readings at most one
+ * update per device property is pending, a newer value for the same property replaces the pending one (merged) since
+ * only the latest value is ever published. Events, that is binary states such as alarms, doors, motion and tamper, are
+ * only merged with a pending event of the same value, so no transition is lost. The number of pending updates is
+ * bounded, when the queue is full new updates are rejected (dropped) so the caller can shed load.
+ * <p>
+ * Part of the capacity is reserved for events. Which updates are events is decided by the caller, by the channel the
+ * property is bound to. Meter readings can only fill the queue up to its capacity minus the reserve, so a storm of
+ * meter updates never keeps events out.
+ * <p>
+ * Pending updates are keyed by device id and {@link FibaroPropertyKeys property key}. A property no device fetched
+ * from the Fibaro api has gets no key, its updates are keyed by device id and property name instead.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroUpdateQueue {
+
+    private final StripedExecutor executor;
+    private final Consumer<FibaroUpdate> handler;
+    private final Predicate<FibaroUpdate> events;
+    private final int capacity;
+    private final int meterCapacity;
+
+    // The pending meter reading of each device property
+    private final Map<Long, FibaroUpdate> pending = new HashMap<Long, FibaroUpdate>();
+    // Properties without a key are merged by device id and name, names pushed to the listener are never interned
+    private final Map<String, FibaroUpdate> pendingUnknown = new HashMap<String, FibaroUpdate>();
+    // The latest pending event of each device property
+    private final Map<Long, FibaroUpdate> pendingEvents = new HashMap<Long, FibaroUpdate>();
+    private final Map<String, FibaroUpdate> unknownEvents = new HashMap<String, FibaroUpdate>();
+    private int size;
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param executor Executor the updates are handled on, updates of the same device in the order they were offered
+     * @param handler Handles an update
+     * @param events Tells whether an update is an event, all other updates are meter readings
+     * @param capacity Maximum number of pending updates
+     * @param reserved Part of the capacity only events may use
+     */
+    public FibaroUpdateQueue(StripedExecutor executor, Consumer<FibaroUpdate> handler, Predicate<FibaroUpdate> events,
+            int capacity, int reserved) {
+        this.executor = executor;
+        this.handler = handler;
+        this.events = events;
+        this.capacity = capacity;
+        this.meterCapacity = Math.max(capacity - reserved, 0);
+    }
+
+    /**
+     * Queues an update to be handled, merging it with a pending update of the same device property
+     *
+     * @param fibaroUpdate The update
+     * @return false if the queue is full and the update was dropped, or if the executor has been shut down
+     */
+    public boolean offer(FibaroUpdate fibaroUpdate) {
+        String property = fibaroUpdate.getProperty();
+        int propertyKey = property == null ? -1 : FibaroPropertyKeys.find(property);
+        boolean event = events.test(fibaroUpdate);
+        if (property != null && propertyKey < 0) {
+            String key = fibaroUpdate.getId() + ":" + property;
+            return event ? offerEvent(unknownEvents, key, fibaroUpdate) : offerMeter(pendingUnknown, key, fibaroUpdate);
+        }
+        Long key = ((long) fibaroUpdate.getId() << 32) | (propertyKey & 0xFFFFFFFFL);
+        return event ? offerEvent(pendingEvents, key, fibaroUpdate) : offerMeter(pending, key, fibaroUpdate);
+    }
+
+    private <K> boolean offerMeter(Map<K, FibaroUpdate> updates, K key, FibaroUpdate fibaroUpdate) {
+        synchronized (this) {
+            if (updates.containsKey(key)) {
+                updates.put(key, fibaroUpdate);
+                merged.increment();
+                return true;
+            }
+            if (size >= meterCapacity) {
+                dropped.increment();
+                return false;
+            }
+            updates.put(key, fibaroUpdate);
+            size++;
+        }
+        // The task takes whatever value is pending when it runs, later merges are picked up as well
+        return execute(updates, key, fibaroUpdate, () -> handleMeter(updates, key));
+    }
+
+    private <K> boolean offerEvent(Map<K, FibaroUpdate> updates, K key, FibaroUpdate fibaroUpdate) {
+        synchronized (this) {
+            FibaroUpdate queued = updates.get(key);
+            if (queued != null && Objects.equals(queued.getValue(), fibaroUpdate.getValue())) {
+                // The latest pending event already carries the value
+                merged.increment();
+                return true;
+            }
+            if (size >= capacity) {
+                dropped.increment();
+                return false;
+            }
+            updates.put(key, fibaroUpdate);
+            size++;
+        }
+        // Every event with a new value is handled, in the order they were offered
+        return execute(updates, key, fibaroUpdate, () -> handleEvent(updates, key, fibaroUpdate));
+    }
+
+    private <K> boolean execute(Map<K, FibaroUpdate> updates, K key, FibaroUpdate fibaroUpdate, Runnable task) {
+        try {
+            executor.execute(fibaroUpdate.getId(), task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // The executor has been shut down, the bridge is being disposed
+            synchronized (this) {
+                updates.remove(key, fibaroUpdate);
+                size--;
+            }
+            return false;
+        }
+    }
+
+    private <K> void handleMeter(Map<K, FibaroUpdate> updates, K key) {
+        FibaroUpdate fibaroUpdate;
+        synchronized (this) {
+            fibaroUpdate = updates.remove(key);
+            size--;
+        }
+        if (fibaroUpdate != null) {
+            handler.accept(fibaroUpdate);
+        }
+    }
+
+    private <K> void handleEvent(Map<K, FibaroUpdate> updates, K key, FibaroUpdate fibaroUpdate) {
+        synchronized (this) {
+            // Only the latest pending event of a property is kept, to merge equal values with
+            updates.remove(key, fibaroUpdate);
+            size--;
+        }
+        handler.accept(fibaroUpdate);
+    }
+
+    /**
+     * Number of updates waiting to be handled
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of updates replaced by a newer value, or events equal to a pending event, of the same device property
+     */
+    public long getMerged() {
+        return merged.sum();
+    }
+
+    /**
+     * Number of updates dropped because the queue was full
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+}
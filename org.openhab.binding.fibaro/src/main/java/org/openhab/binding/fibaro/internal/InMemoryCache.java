@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent cache where every entry expires a fixed time after it was put. Reads never take a lock, an expired entry
+ * is simply treated as a miss and removed. Expired entries that are never read again are removed by a cleanup job
+ * running on a scheduler owned by the caller, see {@link #start} and {@link #stop}.
+ * <p>
+ * Since all entries live equally long they expire in the order they were put or last refreshed. The keys are kept in
+ * an expiry queue in that order, so evicting the entry that expires first and removing the expired entries only take
+ * entries from the head of the queue instead of scanning the whole map. A refresh, which replaces an entry, only
+ * touches the map: the key keeps its place in the queue and is moved to the tail once it reaches the head. The order
+ * is therefore only approximate for keys refreshed shortly after they were put, which at worst evicts such a key a
+ * little late. Removed keys are dropped from the queue when they reach its head, or when the queue holds twice as
+ * many keys as the cache may and is compacted. Only one thread at a time evicts or cleans up, writers never wait for
+ * it.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class InMemoryCache<K, T> {
+
+    private final long timeToLive;
+    private volatile int maxItems;
+    private final ConcurrentHashMap<K, CacheObject<K, T>> cacheMap;
+    private final ConcurrentLinkedQueue<CacheObject<K, T>> expiryQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final ReentrantLock evicting = new ReentrantLock();
+
+    private ScheduledFuture<?> cleanupJob;
+
+    protected static class CacheObject<K, T> {
+        public final K key;
+        public final long expires;
+        public final T value;
+        // Set once the entry has its own place in the expiry queue
+        volatile boolean queued;
+
+        protected CacheObject(K key, T value, long expires) {
+            this.key = key;
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * @param timeToLive Time in seconds an entry is kept in the cache
+     * @param maxItems Maximum number of entries in the cache
+     */
+    public InMemoryCache(long timeToLive, int maxItems) {
+        this.timeToLive = TimeUnit.SECONDS.toMillis(timeToLive);
+        this.maxItems = maxItems;
+        this.cacheMap = new ConcurrentHashMap<K, CacheObject<K, T>>(maxItems);
+    }
+
+    /**
+     * Starts removing expired entries periodically
+     *
+     * @param scheduler Scheduler to run the cleanup job on
+     * @param cleanupInterval Interval in seconds between two cleanups
+     */
+    public synchronized void start(ScheduledExecutorService scheduler, long cleanupInterval) {
+        stop();
+        if (timeToLive > 0 && cleanupInterval > 0) {
+            cleanupJob = scheduler.scheduleWithFixedDelay(this::cleanup, cleanupInterval, cleanupInterval,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stops the cleanup job and empties the cache
+     */
+    public synchronized void stop() {
+        if (cleanupJob != null) {
+            cleanupJob.cancel(false);
+            cleanupJob = null;
+        }
+        evicting.lock();
+        try {
+            cacheMap.clear();
+            expiryQueue.clear();
+            queued.set(0);
+        } finally {
+            evicting.unlock();
+        }
+    }
+
+    /**
+     * Changes the maximum number of entries, a smaller maximum takes effect as new keys are added
+     */
+    public void setMaxItems(int maxItems) {
+        this.maxItems = maxItems;
+    }
+
+    public void put(K key, T value) {
+        CacheObject<K, T> object = new CacheObject<K, T>(key, value, System.currentTimeMillis() + timeToLive);
+        if (cacheMap.put(key, object) != null) {
+            // A refresh, the key keeps its place in the expiry queue
+            return;
+        }
+        int queuedKeys = enqueue(object);
+        boolean full = cacheMap.size() > maxItems;
+        boolean compact = queuedKeys > 2 * maxItems;
+        if ((full || compact) && evicting.tryLock()) {
+            try {
+                if (compact) {
+                    compact();
+                }
+                // Also covers the keys other writers added before this thread got to evict, the keys added while it
+                // is evicting are left to the next writer so that a steady stream of new keys can not keep it here
+                int excess = cacheMap.size() - maxItems;
+                while (excess > 0 && evictFirstToExpire()) {
+                    excess--;
+                }
+            } finally {
+                evicting.unlock();
+            }
+        }
+    }
+
+    public T get(K key) {
+        CacheObject<K, T> c = cacheMap.get(key);
+
+        if (c == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() > c.expires) {
+            if (cacheMap.remove(key, c)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return c.value;
+    }
+
+    /**
+     * Gets an entry without counting a hit or miss, for callers that only update entries which happen to be cached
+     * and would otherwise skew the hit ratio
+     *
+     * @param key The key
+     * @return the value or null if the key is not cached or has expired
+     */
+    public T peek(K key) {
+        CacheObject<K, T> c = cacheMap.get(key);
+        return c == null || System.currentTimeMillis() > c.expires ? null : c.value;
+    }
+
+    public void remove(K key) {
+        cacheMap.remove(key);
+    }
+
+    public int size() {
+        return cacheMap.size();
+    }
+
+    /**
+     * Removes the expired entries from the head of the expiry queue
+     */
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        evicting.lock();
+        try {
+            CacheObject<K, T> head = currentHead();
+            while (head != null && now > head.expires) {
+                removeHead(head);
+                head = currentHead();
+            }
+        } finally {
+            evicting.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private int enqueue(CacheObject<K, T> object) {
+        object.queued = true;
+        expiryQueue.add(object);
+        return queued.incrementAndGet();
+    }
+
+    /**
+     * Skips the keys at the head of the expiry queue that were removed, and moves the keys that were refreshed to the
+     * tail, until the head is the current entry of its key. Must be called holding the eviction lock.
+     *
+     * @return the entry at the head or null if the queue is empty
+     */
+    private CacheObject<K, T> currentHead() {
+        CacheObject<K, T> head = expiryQueue.peek();
+        while (head != null) {
+            CacheObject<K, T> current = cacheMap.get(head.key);
+            if (current == head) {
+                return head;
+            }
+            expiryQueue.poll();
+            queued.decrementAndGet();
+            requeue(current);
+            head = expiryQueue.peek();
+        }
+        return null;
+    }
+
+    /**
+     * Queues the current entry of a key whose queued entry was replaced, unless it already is
+     */
+    private void requeue(CacheObject<K, T> current) {
+        if (current != null && !current.queued) {
+            enqueue(current);
+        }
+    }
+
+    /**
+     * Takes the entry at the head of the expiry queue out of the queue and the cache. Must be called holding the
+     * eviction lock.
+     */
+    private void removeHead(CacheObject<K, T> head) {
+        expiryQueue.poll();
+        queued.decrementAndGet();
+        if (cacheMap.remove(head.key, head)) {
+            evictions.increment();
+        } else {
+            // Refreshed in the meantime
+            requeue(cacheMap.get(head.key));
+        }
+    }
+
+    /**
+     * Evicts the entry that expires first. Must be called holding the eviction lock.
+     *
+     * @return false if there was no entry to evict
+     */
+    private boolean evictFirstToExpire() {
+        CacheObject<K, T> head = currentHead();
+        if (head == null) {
+            return false;
+        }
+        removeHead(head);
+        return true;
+    }
+
+    /**
+     * Drops the removed keys from the expiry queue and moves the refreshed keys to the tail, so keys that are removed
+     * and put again do not grow it. Must be called holding the eviction lock.
+     */
+    private void compact() {
+        // Keys queued while compacting are current, there is no need to go on after the keys queued before
+        int remaining = queued.get();
+        Iterator<CacheObject<K, T>> itr = expiryQueue.iterator();
+        while (remaining-- > 0 && itr.hasNext()) {
+            CacheObject<K, T> object = itr.next();
+            CacheObject<K, T> current = cacheMap.get(object.key);
+            if (current != object) {
+                itr.remove();
+                queued.decrementAndGet();
+                requeue(current);
+            }
+        }
+    }
+}
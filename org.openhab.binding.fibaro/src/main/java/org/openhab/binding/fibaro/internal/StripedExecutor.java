@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
+
+/**
+ * Executor running tasks on a fixed number of single threaded stripes. Tasks submitted with the same key always run on
+ * the same stripe and therefore in the order they were submitted, while tasks with different keys run in parallel.
+ * The queue depth and the time tasks spend queued and running are recorded per stripe.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class StripedExecutor {
+
+    private final Stripe[] stripes;
+
+    /**
+     * Statistics of one stripe
+     */
+    public static class Stripe {
+        private final ThreadPoolExecutor executor;
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final AtomicLong maxLatency = new AtomicLong();
+
+        private Stripe(ThreadPoolExecutor executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * Number of tasks waiting to run on this stripe
+         */
+        public int getQueueDepth() {
+            return executor.getQueue().size();
+        }
+
+        /**
+         * Number of tasks that have run on this stripe
+         */
+        public long getCompleted() {
+            return completed.sum();
+        }
+
+        /**
+         * Average time in microseconds from submitting a task until it has run
+         */
+        public long getAverageLatency() {
+            long count = completed.sum();
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatency.sum() / count);
+        }
+
+        /**
+         * Longest time in microseconds from submitting a task until it has run
+         */
+        public long getMaxLatency() {
+            return TimeUnit.NANOSECONDS.toMicros(maxLatency.get());
+        }
+
+        private void record(long latency) {
+            completed.increment();
+            totalLatency.add(latency);
+            long max = maxLatency.get();
+            while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+                max = maxLatency.get();
+            }
+        }
+    }
+
+    /**
+     * @param name Name used for the stripe threads
+     * @param stripeCount Number of stripes (threads)
+     */
+    public StripedExecutor(String name, int stripeCount) {
+        stripes = new Stripe[stripeCount];
+        NamedThreadFactory threadFactory = new NamedThreadFactory(name);
+        for (int i = 0; i < stripeCount; i++) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<Runnable>(), threadFactory);
+            stripes[i] = new Stripe(executor);
+        }
+    }
+
+    /**
+     * Runs a task on the stripe of the key
+     *
+     * @param key Tasks with the same key run in submission order
+     * @param task The task to run
+     */
+    public void execute(int key, Runnable task) {
+        Stripe stripe = stripes[(key & Integer.MAX_VALUE) % stripes.length];
+        long submitted = System.nanoTime();
+        stripe.executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                stripe.record(System.nanoTime() - submitted);
+            }
+        });
+    }
+
+    /**
+     * Total number of tasks waiting to run on all stripes
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Stripe stripe : stripes) {
+            depth += stripe.getQueueDepth();
+        }
+        return depth;
+    }
+
+    public Stripe[] getStripes() {
+        return stripes;
+    }
+
+    public void shutdown() {
+        for (Stripe stripe : stripes) {
+            stripe.executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,384 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.communicator.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.util.BufferingResponseListener;
+import org.eclipse.jetty.client.util.InputStreamResponseListener;
+import org.eclipse.jetty.client.util.StringContentProvider;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
+import org.openhab.binding.fibaro.internal.FibaroMetric;
+import org.openhab.binding.fibaro.internal.FibaroMetrics;
+import org.openhab.binding.fibaro.internal.exception.FibaroException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Asynchronous client for the Fibaro API. Requests are sent with the non-blocking Jetty request api and the result is
+ * handed back as a {@link CompletableFuture}. At most {@code maxRequestsInFlight} requests are sent to the gateway at
+ * the same time, the rest are queued and sent in order as soon as a running request completes. The queue is bounded by
+ * the number of requests the http client queues per destination, requests beyond it fail right away. The latency of the
+ * device and action calls, from queuing the request until it has completed, is recorded in the {@link FibaroMetrics}.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroApiClient {
+
+    private Logger logger = LoggerFactory.getLogger(FibaroApiClient.class);
+
+    private final HttpClient httpClient;
+    private final Executor parserExecutor;
+    private final String authorization;
+    private final int maxRequestsInFlight;
+    private final long timeout;
+    private final int maxResponseSize;
+    private final Gson gson;
+    private final FibaroMetrics metrics;
+
+    private final AtomicInteger requestsInFlight = new AtomicInteger();
+    private final Queue<Runnable> pendingRequests = new ConcurrentLinkedQueue<Runnable>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    /**
+     * @param httpClient The started http client to send the requests with, it may be shared with other gateways
+     * @param parserExecutor Executor streamed responses are parsed on, it must not be the executor of the http client
+     * @param username Admin username to the Fibaro controller
+     * @param password Admin password to the Fibaro controller
+     * @param maxRequestsInFlight Maximum number of requests sent to the Fibaro controller at the same time
+     * @param timeout Timeout in seconds of a single request
+     * @param maxResponseSize Maximum size in bytes of a response body
+     * @param metrics Metrics the latency of the calls is recorded in
+     */
+    public FibaroApiClient(HttpClient httpClient, Executor parserExecutor, String username, String password,
+            int maxRequestsInFlight, long timeout, int maxResponseSize, FibaroMetrics metrics) {
+        this.httpClient = httpClient;
+        this.parserExecutor = parserExecutor;
+        // Send the credentials with every request instead of adding them to the store of the shared client
+        this.authorization = "Basic "
+                + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.maxRequestsInFlight = maxRequestsInFlight;
+        this.timeout = timeout;
+        this.maxResponseSize = maxResponseSize;
+        this.gson = new Gson();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Calls the Fibaro API and returns a future holding a pojo of type passed in as result parameter
+     *
+     * @param method The http method to send the request with
+     * @param url Url to the api
+     * @param content The data sent with the request (if any)
+     * @param result The json pojo to parse the response into (using gson)
+     * @return future completed with the json pojo holding the response data, or exceptionally if the call failed
+     */
+    public <T> CompletableFuture<T> call(HttpMethod method, String url, String content, Class<T> result) {
+        return call(method, url, content, result, timeout);
+    }
+
+    /**
+     * Calls the Fibaro API with a specific request timeout, for example a long-poll request
+     *
+     * @param method The http method to send the request with
+     * @param url Url to the api
+     * @param content The data sent with the request (if any)
+     * @param result The json pojo to parse the response into (using gson)
+     * @param timeout Timeout in seconds of this request
+     * @return future completed with the json pojo holding the response data, or exceptionally if the call failed
+     */
+    public <T> CompletableFuture<T> call(HttpMethod method, String url, String content, Class<T> result,
+            long timeout) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        long queued = System.nanoTime();
+        return enqueue(url, future, () -> send(method, url, content, result, timeout, future, queued, true));
+    }
+
+    /**
+     * Calls the Fibaro API right away, outside of the limit of requests in flight. Use this for a long-poll request,
+     * which would otherwise hold one of the slots for its whole duration.
+     *
+     * @param method The http method to send the request with
+     * @param url Url to the api
+     * @param content The data sent with the request (if any)
+     * @param result The json pojo to parse the response into (using gson)
+     * @param timeout Timeout in seconds of this request
+     * @return future completed with the json pojo holding the response data, or exceptionally if the call failed
+     */
+    public <T> CompletableFuture<T> callUnlimited(HttpMethod method, String url, String content, Class<T> result,
+            long timeout) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        send(method, url, content, result, timeout, future, System.nanoTime(), false);
+        return future;
+    }
+
+    /**
+     * Calls the Fibaro API and parses the response while it is received, without holding the whole response body in
+     * memory. Use this for large responses such as the list of all devices.
+     *
+     * @param method The http method to send the request with
+     * @param url Url to the api
+     * @param content The data sent with the request (if any)
+     * @param parser Parser reading the response body
+     * @return future completed with the parsed response, or exceptionally if the call failed
+     */
+    public <T> CompletableFuture<T> stream(HttpMethod method, String url, String content,
+            FibaroResponseParser<T> parser) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        long queued = System.nanoTime();
+        return enqueue(url, future, () -> sendStreaming(method, url, content, parser, future, queued));
+    }
+
+    /**
+     * Number of requests currently sent to the Fibaro controller and waiting for a response
+     */
+    public int getRequestsInFlight() {
+        return requestsInFlight.get();
+    }
+
+    /**
+     * Number of requests waiting to be sent to the Fibaro controller
+     */
+    public int getPendingRequests() {
+        return pendingCount.get();
+    }
+
+    private <T> CompletableFuture<T> enqueue(String url, CompletableFuture<T> future, Runnable request) {
+        if (pendingCount.incrementAndGet() > httpClient.getMaxRequestsQueuedPerDestination()) {
+            pendingCount.decrementAndGet();
+            future.completeExceptionally(
+                    new FibaroException("Too many requests queued, dropping the call to the Fibaro api on url " + url));
+            return future;
+        }
+        pendingRequests.add(request);
+        sendPendingRequests();
+        return future;
+    }
+
+    /**
+     * Sends queued requests while there are free slots. Only one thread drains at a time, a request completing while
+     * the queue is drained, on another thread or synchronously from within a send, only tells the draining thread to
+     * go round once more. This keeps the stack flat when many queued requests fail right away.
+     */
+    private void sendPendingRequests() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            drainPendingRequests();
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainPendingRequests() {
+        while (true) {
+            int inFlight = requestsInFlight.get();
+            if (inFlight >= maxRequestsInFlight) {
+                return;
+            }
+            if (!requestsInFlight.compareAndSet(inFlight, inFlight + 1)) {
+                continue;
+            }
+            Runnable request = pendingRequests.poll();
+            if (request == null) {
+                requestsInFlight.decrementAndGet();
+                // A request may have been queued after we polled but before we released our slot
+                if (pendingRequests.isEmpty()) {
+                    return;
+                }
+            } else {
+                pendingCount.decrementAndGet();
+                request.run();
+            }
+        }
+    }
+
+    private void requestCompleted(String url, CompletableFuture<?> future, long queued) {
+        requestCompleted(url, future, queued, true);
+    }
+
+    private void requestCompleted(String url, CompletableFuture<?> future, long queued, boolean limited) {
+        metrics.record(FibaroMetric.ofApiUrl(url), System.nanoTime() - queued, future.isCompletedExceptionally());
+        if (limited) {
+            requestsInFlight.decrementAndGet();
+            sendPendingRequests();
+        }
+    }
+
+    private <T> void send(HttpMethod method, String url, String content, Class<T> result, long timeout,
+            CompletableFuture<T> future, long queued, boolean limited) {
+        logger.debug("Calling the Fibaro api on url: {} with content: {}", url, content);
+        try {
+            // @formatter:off
+            httpClient.newRequest(url)
+                    .method(method)
+                    .header(HttpHeader.AUTHORIZATION, authorization)
+                    .content(new StringContentProvider(content))
+                    .timeout(timeout, TimeUnit.SECONDS)
+                    .send(new BufferingResponseListener(maxResponseSize) {
+                        @Override
+                        public void onComplete(Result response) {
+                            try {
+                                complete(response, getContentAsString(), result, future);
+                            } finally {
+                                requestCompleted(url, future, queued, limited);
+                            }
+                        }
+                    });
+            // @formatter:on
+        } catch (Exception e) {
+            future.completeExceptionally(new FibaroException("Failed to call the Fibaro api on url " + url, e));
+            requestCompleted(url, future, queued, limited);
+        }
+    }
+
+    private <T> void sendStreaming(HttpMethod method, String url, String content, FibaroResponseParser<T> parser,
+            CompletableFuture<T> future, long queued) {
+        logger.debug("Calling the Fibaro api on url: {} with content: {}", url, content);
+        try {
+            InputStreamResponseListener listener = new InputStreamResponseListener();
+            // @formatter:off
+            httpClient.newRequest(url)
+                    .method(method)
+                    .header(HttpHeader.AUTHORIZATION, authorization)
+                    .content(new StringContentProvider(content))
+                    .timeout(timeout, TimeUnit.SECONDS)
+                    .send(listener);
+            // @formatter:on
+
+            // Reading the stream blocks until the content has arrived, which is delivered by the threads of the http
+            // client, so parse on a thread of the separate parser executor
+            parserExecutor.execute(() -> {
+                try {
+                    future.complete(parse(listener, parser));
+                } catch (FibaroException e) {
+                    future.completeExceptionally(e);
+                } catch (Exception e) {
+                    logger.debug("Method failed: {}", e.getMessage());
+                    future.completeExceptionally(
+                            new FibaroException("Failed to read the response from the Fibaro api on url " + url, e));
+                } finally {
+                    requestCompleted(url, future, queued);
+                }
+            });
+        } catch (Exception e) {
+            future.completeExceptionally(new FibaroException("Failed to call the Fibaro api on url " + url, e));
+            requestCompleted(url, future, queued);
+        }
+    }
+
+    private <T> T parse(InputStreamResponseListener listener, FibaroResponseParser<T> parser) throws Exception {
+        Response response = listener.get(timeout, TimeUnit.SECONDS);
+        InputStream input = listener.getInputStream();
+        int statusCode = response.getStatus();
+        if (statusCode != HttpStatus.OK_200 && statusCode != HttpStatus.ACCEPTED_202) {
+            input.close();
+            String statusLine = statusCode + " " + response.getReason();
+            logger.debug("Method failed: {}", statusLine);
+            throw new FibaroException("Method failed: " + statusLine);
+        }
+
+        try (JsonReader reader = new JsonReader(
+                new InputStreamReader(new LimitedInputStream(input, maxResponseSize), StandardCharsets.UTF_8))) {
+            return parser.parse(reader);
+        } catch (RuntimeException e) {
+            throw new FibaroException("Failed to parse the response from the Fibaro api", e);
+        }
+    }
+
+    private <T> void complete(Result response, String content, Class<T> result, CompletableFuture<T> future) {
+        if (response.isFailed()) {
+            logger.debug("Method failed: {}", response.getFailure().getMessage());
+            future.completeExceptionally(new FibaroException("Method failed", response.getFailure()));
+            return;
+        }
+
+        int statusCode = response.getResponse().getStatus();
+        if (statusCode != HttpStatus.OK_200 && statusCode != HttpStatus.ACCEPTED_202) {
+            String statusLine = statusCode + " " + response.getResponse().getReason();
+            logger.debug("Method failed: {}", statusLine);
+            future.completeExceptionally(new FibaroException("Method failed: " + statusLine));
+            return;
+        }
+
+        logger.debug("{}", content);
+        try {
+            future.complete(gson.fromJson(content, result));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(new FibaroException("Failed to parse the response from the Fibaro api", e));
+        }
+    }
+
+    /**
+     * Fails reading once more than the allowed number of bytes have been read
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new IOException("Response exceeds the maximum size of " + limit + " bytes");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.communicator.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.io.Connection;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
+
+/**
+ * The http client shared by all gateways of the binding. Every gateway is its own destination in the client and gets
+ * its own connection pool, limited to {@code maxConnectionsPerDestination} connections and
+ * {@code maxRequestsQueuedPerDestination} requests waiting for a connection. The number of requests sent and
+ * connections opened are recorded to show how well connections are reused.
+ * <p>
+ * Responses parsed while they are received are read on a separate parser pool. Reading blocks until the content has
+ * arrived, and the content is delivered by the client threads, so a parser must never take one of those.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroHttpClient {
+
+    private static final int MIN_THREADS = 2;
+    private static final int MAX_THREADS = 16;
+    private static final long IDLE_TIMEOUT = 60000; // 60s
+
+    private final HttpClient httpClient;
+    private final ExecutorService parserExecutor;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+
+    /**
+     * @param maxConnectionsPerDestination Maximum number of connections to one gateway
+     * @param maxRequestsQueuedPerDestination Maximum number of requests to one gateway waiting for a connection
+     */
+    public FibaroHttpClient(int maxConnectionsPerDestination, int maxRequestsQueuedPerDestination) {
+        QueuedThreadPool threadPool = new QueuedThreadPool(MAX_THREADS, MIN_THREADS);
+        threadPool.setName("fibaro-http-client");
+        threadPool.setDaemon(true);
+
+        httpClient = new HttpClient();
+        httpClient.setExecutor(threadPool);
+        httpClient.setMaxConnectionsPerDestination(maxConnectionsPerDestination);
+        httpClient.setMaxRequestsQueuedPerDestination(maxRequestsQueuedPerDestination);
+        httpClient.setIdleTimeout(IDLE_TIMEOUT);
+        httpClient.setFollowRedirects(false);
+        httpClient.getRequestListeners().add(new Request.Listener.Adapter() {
+            @Override
+            public void onBegin(Request request) {
+                requests.increment();
+            }
+        });
+        // One parser per connection to a gateway, idle parser threads are stopped
+        ThreadPoolExecutor parsers = new ThreadPoolExecutor(maxConnectionsPerDestination, maxConnectionsPerDestination,
+                IDLE_TIMEOUT, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+                new NamedThreadFactory("fibaro-http-parser"));
+        parsers.allowCoreThreadTimeOut(true);
+        parserExecutor = parsers;
+
+        httpClient.addBean(new Connection.Listener() {
+            @Override
+            public void onOpened(Connection connection) {
+                connectionsOpened.increment();
+            }
+
+            @Override
+            public void onClosed(Connection connection) {
+                connectionsClosed.increment();
+            }
+        });
+    }
+
+    public void start() throws Exception {
+        httpClient.start();
+    }
+
+    public void stop() throws Exception {
+        httpClient.stop();
+        parserExecutor.shutdownNow();
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Gets the executor responses are parsed on while they are received
+     */
+    public ExecutorService getParserExecutor() {
+        return parserExecutor;
+    }
+
+    /**
+     * Number of requests sent
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Number of connections opened
+     */
+    public long getConnectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    /**
+     * Number of connections currently open
+     */
+    public long getOpenConnections() {
+        return connectionsOpened.sum() - connectionsClosed.sum();
+    }
+
+    /**
+     * Share of the requests in percent that were sent on an already open connection
+     */
+    public double getConnectionReuse() {
+        long sent = requests.sum();
+        return sent == 0 ? 0 : Math.max(0, 100.0 * (sent - connectionsOpened.sum()) / sent);
+    }
+
+}
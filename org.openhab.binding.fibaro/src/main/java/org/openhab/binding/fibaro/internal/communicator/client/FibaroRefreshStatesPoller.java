@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.communicator.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.eclipse.jetty.http.HttpMethod;
+import org.openhab.binding.fibaro.internal.model.json.FibaroRefreshStates;
+import org.openhab.binding.fibaro.internal.model.json.FibaroUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Long-poll loop against the refreshStates endpoint of the Fibaro api. This is an alternative to the lua scene pushing
+ * updates to the binding. The poller keeps track of the last change id reported by the gateway and only asks for the
+ * changes made after it. Every changed property is handed to the update consumer as a {@link FibaroUpdate}. Changes
+ * the consumer rejects are not in the change log after the last change id anymore, so the caller is asked to resync
+ * instead. The long-poll request does not count against the limit of requests in flight of the api client.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroRefreshStatesPoller {
+
+    private Logger logger = LoggerFactory.getLogger(FibaroRefreshStatesPoller.class);
+
+    private static final String ID = "id";
+    private static final long LONG_POLL_TIMEOUT = 30; // 30s
+    private static final long RETRY_DELAY = 10; // 10s
+
+    private final FibaroApiClient apiClient;
+    private final String baseUrl;
+    private final ScheduledExecutorService scheduler;
+    private final Predicate<FibaroUpdate> updateConsumer;
+    private final Runnable resync;
+    private final long pollInterval;
+
+    private volatile boolean running;
+    private volatile long last;
+    private ScheduledFuture<?> nextPoll;
+
+    /**
+     * @param apiClient Client used to call the Fibaro api
+     * @param baseUrl Base url to the Fibaro api, for example http://192.168.1.4
+     * @param scheduler Scheduler used to delay polls when there are no changes or the gateway is unreachable
+     * @param updateConsumer Receives one update for each changed property, returns false if the update was rejected
+     * @param resync Called when updates were rejected, to fetch the state the rejected updates carried
+     * @param pollInterval Delay in milliseconds before polling again when the gateway reported no changes
+     */
+    public FibaroRefreshStatesPoller(FibaroApiClient apiClient, String baseUrl, ScheduledExecutorService scheduler,
+            Predicate<FibaroUpdate> updateConsumer, Runnable resync, long pollInterval) {
+        this.apiClient = apiClient;
+        this.baseUrl = baseUrl;
+        this.scheduler = scheduler;
+        this.updateConsumer = updateConsumer;
+        this.resync = resync;
+        this.pollInterval = pollInterval;
+    }
+
+    public synchronized void start() {
+        if (!running) {
+            running = true;
+            poll();
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (nextPoll != null) {
+            nextPoll.cancel(false);
+            nextPoll = null;
+        }
+    }
+
+    /**
+     * The id of the last change received from the gateway
+     */
+    public long getLast() {
+        return last;
+    }
+
+    private void poll() {
+        String url = baseUrl + "/api/refreshStates?last=" + last;
+        apiClient.callUnlimited(HttpMethod.GET, url, "", FibaroRefreshStates.class, LONG_POLL_TIMEOUT)
+                .whenComplete((refreshStates, e) -> {
+                    if (!running) {
+                        return;
+                    }
+                    if (e != null || refreshStates == null) {
+                        logger.debug("Failed to get the device changes from the Fibaro api: {}",
+                                e == null ? "empty response" : e.getMessage());
+                        schedulePoll(RETRY_DELAY, TimeUnit.SECONDS);
+                    } else if (handleChanges(refreshStates)) {
+                        poll();
+                    } else {
+                        schedulePoll(pollInterval, TimeUnit.MILLISECONDS);
+                    }
+                });
+    }
+
+    private synchronized void schedulePoll(long delay, TimeUnit unit) {
+        if (running) {
+            nextPoll = scheduler.schedule(this::poll, delay, unit);
+        }
+    }
+
+    /**
+     * Feeds the changes to the update consumer and remembers the last change id
+     *
+     * @return true if there were any changes
+     */
+    private boolean handleChanges(FibaroRefreshStates refreshStates) {
+        long previous = last;
+        last = refreshStates.getLast();
+
+        List<JsonObject> changes = refreshStates.getChanges();
+        if (changes == null || changes.isEmpty()) {
+            return false;
+        }
+
+        // The first poll returns changes we already have through the initial device fetch
+        if (previous == 0) {
+            logger.debug("Starting to follow Fibaro device changes from change id {}", last);
+            return true;
+        }
+
+        int rejected = 0;
+        for (JsonObject change : changes) {
+            JsonElement id = change.get(ID);
+            if (id == null || !id.isJsonPrimitive()) {
+                continue;
+            }
+            for (Map.Entry<String, JsonElement> property : change.entrySet()) {
+                JsonElement value = property.getValue();
+                if (!ID.equals(property.getKey()) && value.isJsonPrimitive()) {
+                    FibaroUpdate fibaroUpdate = new FibaroUpdate();
+                    fibaroUpdate.setId(id.getAsInt());
+                    fibaroUpdate.setProperty(property.getKey());
+                    fibaroUpdate.setValue(value.getAsString());
+                    if (!updateConsumer.test(fibaroUpdate)) {
+                        rejected++;
+                    }
+                }
+            }
+        }
+        if (rejected > 0) {
+            logger.debug("{} device changes were rejected, requesting a resync", rejected);
+            resync.run();
+        }
+        return true;
+    }
+
+}
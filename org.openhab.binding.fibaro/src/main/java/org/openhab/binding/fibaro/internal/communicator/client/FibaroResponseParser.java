@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.communicator.client;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Parses a response from the Fibaro api while it is streamed, see {@link FibaroApiClient#stream}
+ *
+ * @author Johan Williams - Initial contribution
+ */
+@FunctionalInterface
+public interface FibaroResponseParser<T> {
+
+    /**
+     * @param reader Reader positioned at the start of the response body
+     * @return the parsed response
+     * @throws IOException if the response could not be read or is not valid json
+     */
+    T parse(JsonReader reader) throws IOException;
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.communicator.server;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpHeaderValue;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+import org.eclipse.jetty.server.handler.StatisticsHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.openhab.binding.fibaro.config.FibaroGatewayConfiguration;
+import org.openhab.binding.fibaro.internal.exception.FibaroConfigurationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Embedded jetty server which is used to listen for device updates. The http client is a lua scene in the Fibaro
+ * controller.
+ * <p>
+ * The server runs on a bounded thread pool and a single connector, both sized from the gateway configuration so the
+ * server stays lean on small hosts. The thread pool must have room for the acceptor and selector threads and at least
+ * one thread handling requests. Request and thread pool statistics are kept for the bridge to publish.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroServer {
+
+    private Logger logger = LoggerFactory.getLogger(FibaroServer.class);
+
+    private static final int DEFAULT_MIN_THREADS = 2;
+    private static final int DEFAULT_MAX_THREADS = 8;
+    private static final int DEFAULT_IDLE_TIMEOUT = 30; // 30s
+    private static final int DEFAULT_ACCEPT_QUEUE_SIZE = 50;
+
+    protected Server server;
+    private final QueuedThreadPool threadPool;
+    private final StatisticsHandler statistics;
+    private final String settings;
+
+    public FibaroServer(int serverPort, Handler handler) throws Exception {
+        this(serverPort, new FibaroGatewayConfiguration(), handler);
+    }
+
+    /**
+     * @param serverPort Port to listen on
+     * @param config Gateway configuration holding the thread pool and connector settings, unset values use defaults
+     * @param handler Handler of the update requests
+     * @throws FibaroConfigurationException if the thread pool is too small for the acceptor and selector threads
+     * @throws Exception if the server fails to start
+     */
+    public FibaroServer(int serverPort, FibaroGatewayConfiguration config, Handler handler) throws Exception {
+        settings = getSettings(config);
+        int maxThreads = config.serverMaxThreads > 0 ? config.serverMaxThreads : DEFAULT_MAX_THREADS;
+        int minThreads = config.serverMinThreads > 0 ? Math.min(config.serverMinThreads, maxThreads)
+                : Math.min(DEFAULT_MIN_THREADS, maxThreads);
+        long idleTimeout = TimeUnit.SECONDS
+                .toMillis(config.serverIdleTimeout > 0 ? config.serverIdleTimeout : DEFAULT_IDLE_TIMEOUT);
+
+        threadPool = new QueuedThreadPool(maxThreads, minThreads, (int) idleTimeout);
+        threadPool.setName("fibaro-server-" + serverPort);
+        server = new Server(threadPool);
+
+        // Acceptors and selectors of -1 let jetty pick them from the number of cores
+        ServerConnector connector = new ServerConnector(server,
+                config.serverAcceptors > 0 ? config.serverAcceptors : -1,
+                config.serverSelectors > 0 ? config.serverSelectors : -1);
+        connector.setPort(serverPort);
+        connector.setHost(StringUtils.trimToNull(config.listenAddress));
+        connector.setIdleTimeout(idleTimeout);
+        connector.setAcceptQueueSize(
+                config.serverAcceptQueueSize > 0 ? config.serverAcceptQueueSize : DEFAULT_ACCEPT_QUEUE_SIZE);
+        server.addConnector(connector);
+
+        int connectorThreads = connector.getAcceptors() + connector.getSelectorManager().getSelectorCount();
+        if (maxThreads <= connectorThreads) {
+            throw new FibaroConfigurationException("Server max threads (" + maxThreads
+                    + ") must be larger than the number of acceptor and selector threads (" + connectorThreads + ")");
+        }
+
+        statistics = new StatisticsHandler();
+        if (config.serverKeepAlive == null || config.serverKeepAlive) {
+            statistics.setHandler(handler);
+        } else {
+            statistics.setHandler(new CloseConnectionHandler(handler));
+        }
+        server.setHandler(statistics);
+        try {
+            start();
+        } catch (Exception e) {
+            // A server failing to start, for example because the port is in use, has already started its threads
+            try {
+                server.stop();
+            } catch (Exception se) {
+                logger.debug("Failed to stop the server after it failed to start: {}", se.getMessage());
+            }
+            if (e instanceof IllegalStateException) {
+                // Jetty also leases threads to itself, it refuses to start when too few threads are left for requests
+                throw new FibaroConfigurationException("Server max threads (" + maxThreads + ") is too small: "
+                        + e.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Describes the settings the server is started with, bridges sharing the server must be configured the same way
+     *
+     * @param config Gateway configuration holding the server settings
+     * @return the settings, unset values are shown as 0 (default)
+     */
+    public static String getSettings(FibaroGatewayConfiguration config) {
+        return "listenAddress=" + StringUtils.trimToEmpty(config.listenAddress) + ", serverMinThreads="
+                + config.serverMinThreads + ", serverMaxThreads=" + config.serverMaxThreads + ", serverAcceptors="
+                + config.serverAcceptors + ", serverSelectors=" + config.serverSelectors + ", serverIdleTimeout="
+                + config.serverIdleTimeout + ", serverAcceptQueueSize=" + config.serverAcceptQueueSize
+                + ", serverKeepAlive=" + (config.serverKeepAlive == null || config.serverKeepAlive);
+    }
+
+    /**
+     * The settings the server was started with
+     */
+    public String getSettings() {
+        return settings;
+    }
+
+    public void start() throws Exception {
+        server.start();
+    }
+
+    public void stop() throws Exception {
+        server.stop();
+    }
+
+    /**
+     * Number of requests received since the server was started
+     */
+    public int getRequests() {
+        return statistics.getRequests();
+    }
+
+    /**
+     * Number of threads busy handling requests or connections
+     */
+    public int getBusyThreads() {
+        return threadPool.getBusyThreads();
+    }
+
+    /**
+     * Number of threads currently in the pool
+     */
+    public int getThreads() {
+        return threadPool.getThreads();
+    }
+
+    /**
+     * Maximum number of threads in the pool
+     */
+    public int getMaxThreads() {
+        return threadPool.getMaxThreads();
+    }
+
+    /**
+     * Number of jobs waiting for a thread
+     */
+    public int getQueueSize() {
+        return threadPool.getQueueSize();
+    }
+
+    /**
+     * Asks the client to close the connection after each request when keep-alive is disabled
+     */
+    private static class CloseConnectionHandler extends HandlerWrapper {
+
+        CloseConnectionHandler(Handler handler) {
+            setHandler(handler);
+        }
+
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request,
+                HttpServletResponse response) throws IOException, ServletException {
+            response.setHeader(HttpHeader.CONNECTION.asString(), HttpHeaderValue.CLOSE.asString());
+            super.handle(target, baseRequest, request, response);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.communicator.server;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+
+/**
+ * Routes update requests to the handler of the bridge they are meant for. Requests to {@code /fibaro/<bridgeId>} go to
+ * the handler registered for that bridge. As long as a single bridge is registered, requests to any other path go to
+ * it as well so existing lua scenes posting to the root path keep working. Handlers can be registered and unregistered
+ * while the server is running.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroServerRouter extends AbstractHandler {
+
+    public static final String PATH_PREFIX = "/fibaro/";
+
+    private final Map<String, Handler> handlers = new ConcurrentHashMap<String, Handler>();
+
+    public void register(String bridgeId, Handler handler) {
+        handlers.put(bridgeId, handler);
+    }
+
+    public void unregister(String bridgeId) {
+        handlers.remove(bridgeId);
+    }
+
+    public boolean isEmpty() {
+        return handlers.isEmpty();
+    }
+
+    @Override
+    public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        Handler handler = findHandler(target);
+        if (handler == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            baseRequest.setHandled(true);
+        } else {
+            handler.handle(target, baseRequest, request, response);
+        }
+    }
+
+    private Handler findHandler(String target) {
+        if (target != null && target.startsWith(PATH_PREFIX)) {
+            String bridgeId = target.substring(PATH_PREFIX.length());
+            int end = bridgeId.indexOf('/');
+            return handlers.get(end < 0 ? bridgeId : bridgeId.substring(0, end));
+        }
+
+        Iterator<Handler> iterator = handlers.values().iterator();
+        if (iterator.hasNext()) {
+            Handler handler = iterator.next();
+            if (!iterator.hasNext()) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+}
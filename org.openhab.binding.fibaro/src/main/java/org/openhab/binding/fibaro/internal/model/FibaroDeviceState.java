@@ -0,0 +1,344 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.model;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Compact state of a Fibaro device. Every property reported by the Fibaro api is kept, keyed by its interned
+ * {@link FibaroPropertyKeys key}. Numeric and boolean values are stored in a primitive slot, only values that are
+ * neither keep their string. Numbers are stored as a decimal (unscaled value and scale), so they are read back exactly
+ * as they were reported. Updates are applied in place.
+ * <p>
+ * Only property names of devices fetched from the Fibaro api are interned. Updates received from the Fibaro
+ * controller can only change properties known that way, so they can not grow the table of property names.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroDeviceState {
+
+    private static final byte BOOLEAN = 0;
+    private static final byte STRING = 1;
+    // Numbers keep their scale (the number of fraction digits) in the kind, NUMBER + scale
+    private static final byte NUMBER = 2;
+    private static final int MAX_DIGITS = 18;
+
+    private int id;
+    private String name;
+    private String type;
+    private int roomID;
+    private int parentId;
+    private boolean enabled;
+    private boolean visible;
+    private int created;
+    private int modified;
+
+    private int size;
+    private int[] keys = new int[0];
+    private byte[] kinds = new byte[0];
+    private long[] values = new long[0];
+    private String[] strings;
+
+    public synchronized int getId() {
+        return id;
+    }
+
+    public synchronized void setId(int id) {
+        this.id = id;
+    }
+
+    public synchronized String getName() {
+        return name;
+    }
+
+    public synchronized void setName(String name) {
+        this.name = name;
+    }
+
+    public synchronized String getType() {
+        return type;
+    }
+
+    public synchronized void setType(String type) {
+        // Many devices share a type
+        this.type = type == null ? null : type.intern();
+    }
+
+    public synchronized int getRoomID() {
+        return roomID;
+    }
+
+    public synchronized void setRoomID(int roomID) {
+        this.roomID = roomID;
+    }
+
+    public synchronized int getParentId() {
+        return parentId;
+    }
+
+    public synchronized void setParentId(int parentId) {
+        this.parentId = parentId;
+    }
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public synchronized boolean isVisible() {
+        return visible;
+    }
+
+    public synchronized void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    public synchronized int getCreated() {
+        return created;
+    }
+
+    public synchronized void setCreated(int created) {
+        this.created = created;
+    }
+
+    public synchronized int getModified() {
+        return modified;
+    }
+
+    public synchronized void setModified(int modified) {
+        this.modified = modified;
+    }
+
+    /**
+     * Sets a property of a device fetched from the Fibaro api from the string value reported, storing it as a number
+     * or boolean if possible
+     *
+     * @param property Property name
+     * @param value Property value, null removes the property
+     */
+    public void setProperty(String property, String value) {
+        setProperty(FibaroPropertyKeys.keyOf(property), value);
+    }
+
+    /**
+     * Updates a property from a value received from the Fibaro controller. Property names never reported by a fetched
+     * device are not interned and the update is ignored.
+     *
+     * @param property Property name, may be null
+     * @param value Property value, null removes the property
+     * @return false if the update was ignored
+     */
+    public boolean updateProperty(String property, String value) {
+        int key = property == null ? -1 : FibaroPropertyKeys.find(property);
+        if (key < 0) {
+            return false;
+        }
+        setProperty(key, value);
+        return true;
+    }
+
+    private void setProperty(int key, String value) {
+        if (value == null) {
+            removeProperty(key);
+        } else if ("true".equals(value) || "false".equals(value)) {
+            set(key, BOOLEAN, "true".equals(value) ? 1 : 0, null);
+        } else if (isPlainNumber(value)) {
+            int dot = value.indexOf('.');
+            int scale = dot < 0 ? 0 : value.length() - dot - 1;
+            set(key, (byte) (NUMBER + scale), unscaledValue(value), null);
+        } else {
+            set(key, STRING, 0, value);
+        }
+    }
+
+    /**
+     * Sets a numeric property
+     *
+     * @param property Property name
+     * @param value Property value
+     */
+    public void setProperty(String property, double value) {
+        BigDecimal number = BigDecimal.valueOf(value).stripTrailingZeros();
+        if (number.scale() < 0) {
+            number = number.setScale(0);
+        }
+        if (number.scale() <= MAX_DIGITS && number.unscaledValue().bitLength() < 64) {
+            set(FibaroPropertyKeys.keyOf(property), (byte) (NUMBER + number.scale()),
+                    number.unscaledValue().longValue(), null);
+        } else {
+            set(FibaroPropertyKeys.keyOf(property), STRING, 0, number.toPlainString());
+        }
+    }
+
+    /**
+     * Sets a boolean property
+     *
+     * @param property Property name
+     * @param value Property value
+     */
+    public void setProperty(String property, boolean value) {
+        set(FibaroPropertyKeys.keyOf(property), BOOLEAN, value ? 1 : 0, null);
+    }
+
+    /**
+     * Gets a property as a string
+     *
+     * @param property Property name
+     * @return the value or null if the device has no such property
+     */
+    public synchronized String getProperty(String property) {
+        int index = indexOf(FibaroPropertyKeys.find(property));
+        if (index < 0) {
+            return null;
+        }
+        switch (kinds[index]) {
+            case BOOLEAN:
+                return values[index] != 0 ? "true" : "false";
+            case STRING:
+                return strings[index];
+            default:
+                return formatNumber(values[index], kinds[index] - NUMBER);
+        }
+    }
+
+    public synchronized boolean hasProperty(String property) {
+        return indexOf(FibaroPropertyKeys.find(property)) >= 0;
+    }
+
+    /**
+     * Number of properties of the device
+     */
+    public synchronized int getPropertyCount() {
+        return size;
+    }
+
+    /**
+     * Names of the properties of the device
+     */
+    public synchronized String[] getPropertyNames() {
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = FibaroPropertyKeys.nameOf(keys[i]);
+        }
+        return names;
+    }
+
+    private synchronized void set(int key, byte kind, long value, String string) {
+        int index = indexOf(key);
+        if (index < 0) {
+            index = size;
+            if (size == keys.length) {
+                int capacity = Math.max(4, size + (size >> 1));
+                keys = Arrays.copyOf(keys, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+                values = Arrays.copyOf(values, capacity);
+                if (strings != null) {
+                    strings = Arrays.copyOf(strings, capacity);
+                }
+            }
+            keys[index] = key;
+            size++;
+        }
+        kinds[index] = kind;
+        values[index] = value;
+        if (string != null && strings == null) {
+            strings = new String[keys.length];
+        }
+        if (strings != null) {
+            strings[index] = string;
+        }
+    }
+
+    private synchronized void removeProperty(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return;
+        }
+        int last = --size;
+        keys[index] = keys[last];
+        kinds[index] = kinds[last];
+        values[index] = values[last];
+        if (strings != null) {
+            strings[index] = strings[last];
+            strings[last] = null;
+        }
+    }
+
+    private int indexOf(int key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Plain decimal numbers of up to 18 digits are stored as numbers. Values that would not be read back the same way,
+     * such as codes with leading zeros or negative zero, are kept as strings.
+     */
+    private static boolean isPlainNumber(String value) {
+        int length = value.length();
+        int start = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+        if (length == start || length - start > MAX_DIGITS + 1) {
+            return false;
+        }
+        int dot = -1;
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.' && dot < 0) {
+                dot = i;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        int integerDigits = (dot < 0 ? length : dot) - start;
+        if (integerDigits == 0 || dot == length - 1 || (dot < 0 && length - start > MAX_DIGITS)) {
+            return false;
+        }
+        if (start == 1 && unscaledValue(value) == 0) {
+            return false;
+        }
+        return integerDigits == 1 || value.charAt(start) != '0';
+    }
+
+    /**
+     * The digits of a plain number without its decimal point
+     */
+    private static long unscaledValue(String value) {
+        long unscaled = 0;
+        int length = value.length();
+        for (int i = value.charAt(0) == '-' ? 1 : 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c != '.') {
+                unscaled = unscaled * 10 + (c - '0');
+            }
+        }
+        return value.charAt(0) == '-' ? -unscaled : unscaled;
+    }
+
+    private static String formatNumber(long unscaled, int scale) {
+        return scale == 0 ? Long.toString(unscaled) : BigDecimal.valueOf(unscaled, scale).toPlainString();
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder("FibaroDeviceState [id=").append(id).append(", name=").append(name)
+                .append(", type=").append(type).append(", modified=").append(modified);
+        for (String property : getPropertyNames()) {
+            builder.append(", ").append(property).append('=').append(getProperty(property));
+        }
+        return builder.append(']').toString();
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the property names reported by the Fibaro api into small int keys. Every property name is stored once for
+ * all devices, a device only keeps the keys of its properties. Names are only interned from devices fetched from the
+ * Fibaro api and the {@link PropertyName properties} of the binding, names received in updates are only looked up.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroPropertyKeys {
+
+    private static final ConcurrentHashMap<String, Integer> KEYS = new ConcurrentHashMap<String, Integer>();
+    private static volatile String[] names = new String[64];
+    private static int count;
+
+    static {
+        // The properties the binding binds channels to are known before any device has been fetched
+        for (PropertyName property : PropertyName.values()) {
+            keyOf(property.getName());
+        }
+    }
+
+    private FibaroPropertyKeys() {
+    }
+
+    /**
+     * Gets the key of a property name, assigning a new key the first time a name is seen
+     *
+     * @param name Property name
+     * @return the key
+     */
+    public static int keyOf(String name) {
+        Integer key = KEYS.get(name);
+        return key != null ? key : register(name);
+    }
+
+    /**
+     * Gets the key of a property name without assigning one
+     *
+     * @param name Property name
+     * @return the key or -1 if the name has never been seen
+     */
+    public static int find(String name) {
+        Integer key = KEYS.get(name);
+        return key != null ? key : -1;
+    }
+
+    /**
+     * Gets the property name of a key
+     *
+     * @param key Property key
+     * @return the property name
+     */
+    public static String nameOf(int key) {
+        return names[key];
+    }
+
+    private static synchronized int register(String name) {
+        Integer key = KEYS.get(name);
+        if (key != null) {
+            return key;
+        }
+        String[] updated = count == names.length ? Arrays.copyOf(names, count * 2) : names;
+        updated[count] = name;
+        // Publish the name before the key so a reader finding the key always finds its name
+        names = updated;
+        KEYS.put(name, count);
+        return count++;
+    }
+
+}
@@ -8,6 +8,10 @@
  */
 package org.openhab.binding.fibaro.internal.model;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Enum class for properties names in the device data that we want to read
  *
@@ -22,6 +26,16 @@ public enum PropertyName {
     POWER("power"),
     VALUE("value");
 
+    private static final Map<String, PropertyName> BY_NAME = new HashMap<String, PropertyName>();
+    private static final Map<String, PropertyName> BY_LOWER_CASE_NAME = new HashMap<String, PropertyName>();
+
+    static {
+        for (PropertyName property : PropertyName.values()) {
+            BY_NAME.put(property.name, property);
+            BY_LOWER_CASE_NAME.put(property.name.toLowerCase(Locale.ROOT), property);
+        }
+    }
+
     private final String name;
 
     private PropertyName(String name) {
@@ -32,11 +46,24 @@ public enum PropertyName {
         return name;
     }
 
+    /**
+     * Gets the property with the name
+     *
+     * @param name Property name
+     * @return the property or null if there is no property with the name
+     */
+    public static PropertyName find(String name) {
+        PropertyName property = BY_NAME.get(name);
+        if (property == null && name != null) {
+            property = BY_LOWER_CASE_NAME.get(name.toLowerCase(Locale.ROOT));
+        }
+        return property;
+    }
+
     public static PropertyName fromName(String name) {
-        for (PropertyName property : PropertyName.values()) {
-            if (property.name.equalsIgnoreCase(name)) {
-                return property;
-            }
+        PropertyName property = find(name);
+        if (property != null) {
+            return property;
         }
         throw new IllegalArgumentException("No property with name " + name + " found");
     }
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.model.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openhab.binding.fibaro.internal.model.FibaroDeviceState;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Streaming reader of the device list returned by {@code /api/devices}. Devices are read straight into a
+ * {@link FibaroDeviceState}. All device properties with a plain value are kept, nested values such as parameter lists
+ * and all unused device fields are skipped without being materialized. This keeps the memory used to read the device
+ * list of a large installation down to the device states themselves.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroDeviceReader {
+
+    private FibaroDeviceReader() {
+    }
+
+    /**
+     * Reads a json array of devices
+     *
+     * @param reader Reader positioned at the start of the array
+     * @return the devices
+     * @throws IOException if the json could not be read
+     */
+    public static List<FibaroDeviceState> readDevices(JsonReader reader) throws IOException {
+        List<FibaroDeviceState> devices = new ArrayList<FibaroDeviceState>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            devices.add(readDevice(reader));
+        }
+        reader.endArray();
+        return devices;
+    }
+
+    /**
+     * Reads a single device json object
+     *
+     * @param reader Reader positioned at the start of the object
+     * @return the device
+     * @throws IOException if the json could not be read
+     */
+    public static FibaroDeviceState readDevice(JsonReader reader) throws IOException {
+        FibaroDeviceState device = new FibaroDeviceState();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    device.setId(readInt(reader));
+                    break;
+                case "name":
+                    device.setName(readString(reader));
+                    break;
+                case "roomID":
+                    device.setRoomID(readInt(reader));
+                    break;
+                case "type":
+                    device.setType(readString(reader));
+                    break;
+                case "enabled":
+                    device.setEnabled(readBoolean(reader));
+                    break;
+                case "visible":
+                    device.setVisible(readBoolean(reader));
+                    break;
+                case "parentId":
+                    device.setParentId(readInt(reader));
+                    break;
+                case "properties":
+                    readProperties(reader, device);
+                    break;
+                case "created":
+                    device.setCreated(readInt(reader));
+                    break;
+                case "modified":
+                    device.setModified(readInt(reader));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return device;
+    }
+
+    private static void readProperties(JsonReader reader, FibaroDeviceState device) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String property = reader.nextName();
+            switch (reader.peek()) {
+                case BOOLEAN:
+                    device.setProperty(property, reader.nextBoolean());
+                    break;
+                case STRING:
+                case NUMBER:
+                    device.setProperty(property, reader.nextString());
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+
+    // The Fibaro api reports most values as strings, the readers below accept both strings and json primitives
+
+    private static String readString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BOOLEAN:
+                return Boolean.toString(reader.nextBoolean());
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private static int readInt(JsonReader reader) throws IOException {
+        String value = readString(reader);
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return (int) Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static boolean readBoolean(JsonReader reader) throws IOException {
+        String value = readString(reader);
+        return "true".equalsIgnoreCase(value) || "1".equals(value);
+    }
+
+}
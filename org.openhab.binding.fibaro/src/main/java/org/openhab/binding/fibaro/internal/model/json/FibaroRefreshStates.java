@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.fibaro.internal.model.json;
+
+import java.util.List;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Json pojo for the response of the Fibaro api refreshStates call. Each change holds the device id and one entry per
+ * property that changed since the change id passed in with the request.
+ *
+ * @author Johan Williams - Initial contribution
+ */
+public class FibaroRefreshStates {
+
+    private long last;
+    private List<JsonObject> changes;
+
+    public long getLast() {
+        return last;
+    }
+
+    public void setLast(long last) {
+        this.last = last;
+    }
+
+    public List<JsonObject> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<JsonObject> changes) {
+        this.changes = changes;
+    }
+
+    @Override
+    public String toString() {
+        return "FibaroRefreshStates [last=" + last + ", changes=" + changes + "]";
+    }
+
+}
@@ -19,6 +19,8 @@ public class FibaroUpdate {
     private String name;
     private String property;
     private String value;
+    // Time in nanoseconds the update was received by the binding, not part of the json
+    private transient long received;
 
     public int getId() {
         return id;
@@ -52,6 +54,14 @@ public class FibaroUpdate {
         this.value = value;
     }
 
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
     @Override
     public String toString() {
         return "FibaroUpdateHandler [id=" + id + ", name=" + name + ", property=" + property + ", value=" + value + "]";